@@ -1,14 +1,20 @@
 package com.networkpro.job_service.controller;
 
+import com.networkpro.job_service.dto.JobPageDTO;
 import com.networkpro.job_service.dto.JobRequestDTO;
 import com.networkpro.job_service.dto.JobResponseDTO;
+import com.networkpro.job_service.dto.JobSearchDTO;
+import com.networkpro.job_service.service.ETagCache;
 import com.networkpro.job_service.service.JobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -22,11 +28,29 @@ public class JobController {
         return jobService.getAllJobs();
     }
 
-    // GET /api/jobs/{id}
+    // GET /api/jobs/search?q=&company=&location=&minSalary=&maxSalary=&postedFrom=&postedTo=
+    //     &sort=recent|salary&cursor=&size= - every filter optional; pass nextCursor back, with the
+    //     same filters and sort, to get the next page
+    @GetMapping("/search")
+    public JobPageDTO searchJobs(JobSearchDTO search) {
+        return jobService.searchJobs(search);
+    }
+
+    // GET /api/jobs/{id} - answers 304 when If-None-Match holds the current ETag
     @GetMapping("/{id}")
-    public ResponseEntity<JobResponseDTO> getJobById(@PathVariable Long id) {
+    public ResponseEntity<JobResponseDTO> getJobById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = jobService.getJobETag(id);
+            if (etag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ETagCache.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return jobService.getJobById(id)
-                .map(ResponseEntity::ok)
+                .map(job -> ResponseEntity.ok().eTag(ETagCache.tag(job.getVersion())).body(job))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -41,7 +65,7 @@ public class JobController {
     public ResponseEntity<JobResponseDTO> updateJob(@PathVariable Long id,
             @Valid @RequestBody JobRequestDTO jobRequestDTO) {
         return jobService.updateJob(id, jobRequestDTO)
-                .map(ResponseEntity::ok)
+                .map(job -> ResponseEntity.ok().eTag(ETagCache.tag(job.getVersion())).body(job))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -0,0 +1,14 @@
+package com.networkpro.job_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class JobPageDTO {
+    private List<JobResponseDTO> jobs;
+    // Opaque; pass back as `cursor`, with the same filters and sort, to get
+    // the next page. Null on the last page.
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -12,4 +12,5 @@ public class JobResponseDTO {
     private String location;
     private Double salary;
     private LocalDateTime postedAt;
+    private Long version;
 }
\ No newline at end of file
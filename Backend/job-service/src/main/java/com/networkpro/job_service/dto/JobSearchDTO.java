@@ -0,0 +1,26 @@
+package com.networkpro.job_service.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Query parameters of a job search; every filter is optional.
+@Data
+public class JobSearchDTO {
+    // Case-insensitive substring of the title.
+    private String q;
+    // Case-insensitive exact matches.
+    private String company;
+    private String location;
+    private Double minSalary;
+    private Double maxSalary;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime postedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime postedTo;
+    // "recent" (newest first) or "salary" (highest first).
+    private String sort = "recent";
+    private String cursor;
+    private int size = 20;
+}
@@ -6,8 +6,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+// Search indexes over expressions (lower-cased company and location, title
+// trigrams) are created by JobSearchIndexes.
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_posted_at_id", columnList = "posted_at, id"),
+        @Index(name = "idx_jobs_salary_id", columnList = "salary, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +24,11 @@ public class Job {
     private String description;
     private String company;
     private String location;
+    @Column(nullable = false)
     private Double salary;
+    @Column(name = "posted_at", nullable = false)
     private LocalDateTime postedAt;
+    // Bumped on every update; the job's ETag.
+    @Version
+    private Long version;
 }
\ No newline at end of file
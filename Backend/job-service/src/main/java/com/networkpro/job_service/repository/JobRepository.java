@@ -2,8 +2,14 @@ package com.networkpro.job_service.repository;
 
 import com.networkpro.job_service.model.Job;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long> {
+    @Query("SELECT j.version FROM Job j WHERE j.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.networkpro.job_service.repository;
+
+import com.networkpro.job_service.dto.JobSearchDTO;
+import com.networkpro.job_service.model.Job;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Job search with optional filters, in keyset pages. The SQL holds only the
+ * conditions of the filters given, so each combination is planned for what
+ * it actually filters on, and pages continue from the last row with a row
+ * comparison that the (column, id) indexes can seek to:
+ *
+ * - no filter, a postedAt window or a salary range: idx_jobs_posted_at_id or
+ *   idx_jobs_salary_id, read in sort order;
+ * - company or location: (lower(company | location), posted_at, id), read in
+ *   recency order from the first matching entry;
+ * - title keyword: the trigram index on lower(title).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobSearchRepository {
+    private static final String COLUMNS = "SELECT id, title, description, company, location, salary, posted_at, "
+            + "version FROM jobs";
+
+    private static final RowMapper<Job> JOB = (rs, rowNum) -> new Job(rs.getLong("id"), rs.getString("title"),
+            rs.getString("description"), rs.getString("company"), rs.getString("location"),
+            rs.getDouble("salary"), rs.getObject("posted_at", LocalDateTime.class), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public enum SortBy {
+        RECENT("posted_at"),
+        SALARY("salary");
+
+        private final String column;
+
+        SortBy(String column) {
+            this.column = column;
+        }
+    }
+
+    // `afterValue` and `afterId` are the sort value and id of the last job of
+    // the previous page, or both null for the first page.
+    public List<Job> search(JobSearchDTO filters, SortBy sortBy, Object afterValue, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (filters.getQ() != null && !filters.getQ().isBlank()) {
+            conditions.add("lower(title) LIKE ? ESCAPE '\\'");
+            args.add("%" + escapeLike(filters.getQ().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (filters.getCompany() != null && !filters.getCompany().isBlank()) {
+            conditions.add("lower(company) = ?");
+            args.add(filters.getCompany().trim().toLowerCase(Locale.ROOT));
+        }
+        if (filters.getLocation() != null && !filters.getLocation().isBlank()) {
+            conditions.add("lower(location) = ?");
+            args.add(filters.getLocation().trim().toLowerCase(Locale.ROOT));
+        }
+        if (filters.getMinSalary() != null) {
+            conditions.add("salary >= ?");
+            args.add(filters.getMinSalary());
+        }
+        if (filters.getMaxSalary() != null) {
+            conditions.add("salary <= ?");
+            args.add(filters.getMaxSalary());
+        }
+        if (filters.getPostedFrom() != null) {
+            conditions.add("posted_at >= ?");
+            args.add(filters.getPostedFrom());
+        }
+        if (filters.getPostedTo() != null) {
+            conditions.add("posted_at < ?");
+            args.add(filters.getPostedTo());
+        }
+        if (afterId != null) {
+            conditions.add("(" + sortBy.column + ", id) < (?, ?)");
+            args.add(afterValue);
+            args.add(afterId);
+        }
+        StringBuilder sql = new StringBuilder(COLUMNS);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(sortBy.column).append(" DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), JOB, args.toArray());
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
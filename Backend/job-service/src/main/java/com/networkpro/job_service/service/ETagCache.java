@@ -0,0 +1,124 @@
+package com.networkpro.job_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Small LRU cache of entity versions, so a conditional GET can be answered
+ * 304 without loading the entity. Writes evict their entry; entries also
+ * expire after {@code job.etag.cache-ttl-seconds}, which bounds how long a
+ * write made through another instance can go unnoticed.
+ */
+@Component
+public class ETagCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Object, Entry> versions;
+    // Bumped by every eviction; an evicted key keeps a tombstone stamped with
+    // it, so a read that started earlier can tell its version may be stale.
+    private long evictions;
+    // Newest stamp among tombstones pushed out of the LRU.
+    private long droppedEvictions;
+
+    public ETagCache(@Value("${job.etag.cache-size:10000}") int maxEntries,
+            @Value("${job.etag.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.versions = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() <= ETagCache.this.maxEntries) {
+                    return false;
+                }
+                droppedEvictions = Math.max(droppedEvictions, eldest.getValue().evictedAt);
+                return true;
+            }
+        };
+    }
+
+    // The entity's current tag, from the cache or from the version loader;
+    // empty when the entity does not exist.
+    public Optional<String> tagFor(Object key, Supplier<Optional<Long>> versionLoader) {
+        long now = System.nanoTime();
+        long generation;
+        synchronized (this) {
+            Entry entry = versions.get(key);
+            if (entry != null && entry.evictedAt == 0 && now - entry.loadedNanos < ttlNanos) {
+                return Optional.of(tag(entry.version));
+            }
+            generation = evictions;
+        }
+        Optional<Long> version = versionLoader.get();
+        version.ifPresent(v -> put(key, v, generation));
+        return version.map(ETagCache::tag);
+    }
+
+    // Taken before loading an entity whose version is then passed to put.
+    public synchronized long generation() {
+        return evictions;
+    }
+
+    // Caches a version loaded by a read that started at `generation`, unless
+    // the key was evicted since (the read may have seen the row from before a
+    // write) or a newer version is already cached.
+    public synchronized void put(Object key, long version, long generation) {
+        Entry entry = versions.get(key);
+        long evictedAt = entry != null ? entry.evictedAt : droppedEvictions;
+        if (evictedAt > generation || (entry != null && entry.version > version)) {
+            return;
+        }
+        versions.put(key, new Entry(version, System.nanoTime(), 0));
+    }
+
+    // Evicts again once the surrounding transaction commits: a read between
+    // the two evictions can still load the old row, and the second tombstone
+    // keeps it from being cached.
+    public void evict(Object key) {
+        remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(key);
+                }
+            });
+        }
+    }
+
+    public static String tag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored.
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void remove(Object key) {
+        versions.put(key, new Entry(-1, 0, ++evictions));
+    }
+
+    // evictedAt is non-zero for tombstones.
+    private record Entry(long version, long loadedNanos, long evictedAt) {
+    }
+}
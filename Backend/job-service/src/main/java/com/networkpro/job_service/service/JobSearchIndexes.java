@@ -0,0 +1,49 @@
+package com.networkpro.job_service.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the job search indexes JPA cannot declare: those over lower-cased
+ * company and location, which match case-insensitively and keep each
+ * company's or location's jobs in recency order, and a trigram index on the
+ * lower-cased title for keyword search.
+ *
+ * They are built right after Hibernate creates the table, while it is
+ * empty. Without pg_trgm, title searches still work by checking the jobs
+ * that the other filters leave.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class JobSearchIndexes {
+    private static final Logger log = LoggerFactory.getLogger(JobSearchIndexes.class);
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_jobs_company_posted_at_id ON jobs (lower(company), posted_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_jobs_location_posted_at_id ON jobs (lower(location), posted_at, id)");
+    private static final String TRIGRAM_EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+    private static final String TITLE_TRIGRAMS = "CREATE INDEX IF NOT EXISTS idx_jobs_title_trgm ON jobs "
+            + "USING gin (lower(title) gin_trgm_ops)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void initialize() {
+        INDEXES.forEach(jdbcTemplate::execute);
+        try {
+            jdbcTemplate.execute(TRIGRAM_EXTENSION);
+            jdbcTemplate.execute(TITLE_TRIGRAMS);
+        } catch (DataAccessException ex) {
+            log.warn("pg_trgm is not available; title searches will not be indexed", ex);
+        }
+    }
+}
@@ -1,30 +1,85 @@
 package com.networkpro.job_service.service;
 
+import com.networkpro.job_service.dto.JobPageDTO;
 import com.networkpro.job_service.dto.JobRequestDTO;
 import com.networkpro.job_service.dto.JobResponseDTO;
+import com.networkpro.job_service.dto.JobSearchDTO;
 import com.networkpro.job_service.model.Job;
 import com.networkpro.job_service.repository.JobRepository;
+import com.networkpro.job_service.repository.JobSearchRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class JobService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final JobRepository jobRepository;
+    private final JobSearchRepository jobSearchRepository;
+    private final ETagCache etagCache;
 
     public List<JobResponseDTO> getAllJobs() {
         return jobRepository.findAll().stream().map(this::toResponseDTO).toList();
     }
 
+    public JobPageDTO searchJobs(JobSearchDTO search) {
+        JobSearchRepository.SortBy sortBy = parseSort(search.getSort());
+        if (search.getMinSalary() != null && search.getMaxSalary() != null
+                && search.getMinSalary() > search.getMaxSalary()) {
+            throw new IllegalArgumentException("minSalary must not be greater than maxSalary");
+        }
+        int size = Math.max(1, Math.min(search.getSize(), MAX_PAGE_SIZE));
+        JobCursor after = search.getCursor() == null || search.getCursor().isBlank()
+                ? null : JobCursor.decode(search.getCursor(), sortBy);
+        // One extra row tells whether another page exists without a count query.
+        List<Job> jobs = jobSearchRepository.search(search, sortBy, after != null ? after.value() : null,
+                after != null ? after.id() : null, size + 1);
+        boolean hasMore = jobs.size() > size;
+        if (hasMore) {
+            jobs = jobs.subList(0, size);
+        }
+        JobPageDTO page = new JobPageDTO();
+        page.setJobs(jobs.stream().map(this::toResponseDTO).toList());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            Job last = jobs.get(jobs.size() - 1);
+            Object value = sortBy == JobSearchRepository.SortBy.RECENT ? last.getPostedAt() : last.getSalary();
+            page.setNextCursor(new JobCursor(sortBy, value, last.getId()).encode());
+        }
+        return page;
+    }
+
     public Optional<JobResponseDTO> getJobById(Long id) {
-        return jobRepository.findById(id).map(this::toResponseDTO);
+        long generation = etagCache.generation();
+        return jobRepository.findById(id).map(job -> {
+            etagCache.put(id, job.getVersion(), generation);
+            return toResponseDTO(job);
+        });
+    }
+
+    // Current ETag of a job, without loading it when the tag is cached.
+    public Optional<String> getJobETag(Long id) {
+        return etagCache.tagFor(id, () -> jobRepository.findVersionById(id));
     }
 
     public JobResponseDTO createJob(JobRequestDTO jobRequestDTO) {
         Job job = toEntity(jobRequestDTO);
+        if (job.getPostedAt() == null) {
+            job.setPostedAt(LocalDateTime.now());
+        }
+        // Postgres keeps microseconds; truncating keeps cursors built from the
+        // returned value exact.
+        job.setPostedAt(job.getPostedAt().truncatedTo(ChronoUnit.MICROS));
         Job saved = jobRepository.save(job);
         return toResponseDTO(saved);
     }
@@ -36,14 +91,19 @@ public class JobService {
             job.setCompany(jobRequestDTO.getCompany());
             job.setLocation(jobRequestDTO.getLocation());
             job.setSalary(jobRequestDTO.getSalary());
-            job.setPostedAt(jobRequestDTO.getPostedAt());
-            return toResponseDTO(jobRepository.save(job));
+            if (jobRequestDTO.getPostedAt() != null) {
+                job.setPostedAt(jobRequestDTO.getPostedAt().truncatedTo(ChronoUnit.MICROS));
+            }
+            JobResponseDTO updated = toResponseDTO(jobRepository.save(job));
+            etagCache.evict(id);
+            return updated;
         });
     }
 
     public boolean deleteJob(Long id) {
         return jobRepository.findById(id).map(job -> {
             jobRepository.delete(job);
+            etagCache.evict(id);
             return true;
         }).orElse(false);
     }
@@ -58,6 +118,7 @@ public class JobService {
         dto.setLocation(job.getLocation());
         dto.setSalary(job.getSalary());
         dto.setPostedAt(job.getPostedAt());
+        dto.setVersion(job.getVersion());
         return dto;
     }
 
@@ -71,4 +132,37 @@ public class JobService {
         job.setPostedAt(dto.getPostedAt());
         return job;
     }
-}
\ No newline at end of file
+
+    private static JobSearchRepository.SortBy parseSort(String sort) {
+        try {
+            return JobSearchRepository.SortBy.valueOf((sort == null ? "recent" : sort).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("sort must be one of: recent, salary");
+        }
+    }
+
+    // Position after the last job of a page, as base64url of
+    // "<sort>|<postedAt or salary>|<id>". The sort is kept so that a cursor
+    // cannot be replayed against another order.
+    private record JobCursor(JobSearchRepository.SortBy sortBy, Object value, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((sortBy + "|" + value + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static JobCursor decode(String cursor, JobSearchRepository.SortBy sortBy) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|");
+                if (parts.length != 3 || !parts[0].equals(sortBy.name())) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                Object value = sortBy == JobSearchRepository.SortBy.RECENT
+                        ? LocalDateTime.parse(parts[1]) : Double.valueOf(parts[1]);
+                return new JobCursor(sortBy, value, Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
+    }
+}
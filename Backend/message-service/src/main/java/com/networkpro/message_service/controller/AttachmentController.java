@@ -0,0 +1,183 @@
+package com.networkpro.message_service.controller;
+
+import com.networkpro.message_service.dto.AttachmentDTO;
+import com.networkpro.message_service.model.Attachment;
+import com.networkpro.message_service.service.AttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/attachments")
+public class AttachmentController {
+    // Tomcat's NIO connector hands files named in these request attributes to
+    // the kernel after the servlet returns.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // The content type is whatever the uploader declared. Only types a browser
+    // displays without running script are served inline; anything else, such
+    // as text/html or image/svg+xml, is sent as an opaque download.
+    private static final Set<String> INLINE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp",
+            "application/pdf");
+    private static final String NOSNIFF_HEADER = "X-Content-Type-Options";
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    // POST /api/attachments?uploaderId={id}&fileName={name} - Upload a file as
+    // the raw request body; link it by sending a message with its id
+    @PostMapping
+    public ResponseEntity<AttachmentDTO> upload(@RequestParam Long uploaderId, @RequestParam String fileName,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(attachmentService.upload(uploaderId, fileName, request.getContentType(),
+                request.getInputStream()));
+    }
+
+    // GET /api/attachments/{id}/content - Download a file; supports a single
+    // byte range and conditional requests on its SHA-256 ETag
+    @GetMapping("/{id}/content")
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Attachment attachment = attachmentService.getAttachment(id);
+        String etag = "\"" + attachment.getSha256() + "\"";
+        long size = attachment.getSize();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Content-addressed, so a given id never changes.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(NOSNIFF_HEADER, "nosniff");
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        String inlineType = inlineType(attachment.getContentType());
+        response.setContentType(inlineType != null ? inlineType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                contentDisposition(attachment.getFileName(), inlineType != null));
+
+        long start = 0;
+        long end = size - 1;
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        send(attachmentService.contentPath(attachment), start, length, request, response);
+    }
+
+    // GET /api/attachments?messageId={id} - List the attachments of a message
+    @GetMapping
+    public ResponseEntity<List<AttachmentDTO>> getAttachments(@RequestParam Long messageId) {
+        return ResponseEntity.ok(attachmentService.findByMessageIds(List.of(messageId))
+                .getOrDefault(messageId, List.of()));
+    }
+
+    // Zero-copy through Tomcat's sendfile where the connector supports it,
+    // otherwise FileChannel.transferTo into the response stream.
+    private void send(Path file, long start, long length, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (length == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            attachmentService.recordDownload(length);
+            return;
+        }
+        long began = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        attachmentService.recordDownload(length, System.nanoTime() - began);
+    }
+
+    // A single range only; multiple or malformed ranges get the whole file, as
+    // does a range whose If-Range validator no longer matches.
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (header == null || (ifRange != null && !ifRange.equals(etag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    // The declared type without parameters if it may be shown inline, else null.
+    private static String inlineType(String declared) {
+        try {
+            MediaType type = MediaType.parseMediaType(declared);
+            String essence = (type.getType() + "/" + type.getSubtype()).toLowerCase(Locale.ROOT);
+            return INLINE_TYPES.contains(essence) ? essence : null;
+        } catch (InvalidMediaTypeException ex) {
+            return null;
+        }
+    }
+
+    // Plain filename for ASCII names; RFC 5987 encoding only when needed.
+    private static String contentDisposition(String fileName, boolean inline) {
+        ContentDisposition.Builder builder = inline ? ContentDisposition.inline() : ContentDisposition.attachment();
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)) {
+            builder.filename(fileName);
+        } else {
+            builder.filename(fileName, StandardCharsets.UTF_8);
+        }
+        return builder.build().toString();
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
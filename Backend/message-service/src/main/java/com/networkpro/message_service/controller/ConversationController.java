@@ -0,0 +1,95 @@
+package com.networkpro.message_service.controller;
+
+import com.networkpro.message_service.dto.ConversationMemberDTO;
+import com.networkpro.message_service.dto.ConversationMembersRequestDTO;
+import com.networkpro.message_service.dto.ConversationRequestDTO;
+import com.networkpro.message_service.dto.ConversationResponseDTO;
+import com.networkpro.message_service.dto.GroupMessageRequestDTO;
+import com.networkpro.message_service.dto.GroupReceiptRequestDTO;
+import com.networkpro.message_service.dto.MessageResponseDTO;
+import com.networkpro.message_service.service.ConversationService;
+import com.networkpro.message_service.service.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/conversations")
+public class ConversationController {
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    // POST /api/conversations - Create a group conversation
+    @PostMapping
+    public ResponseEntity<ConversationResponseDTO> createConversation(@RequestBody ConversationRequestDTO request) {
+        return ResponseEntity.ok(conversationService.createConversation(request));
+    }
+
+    // GET /api/conversations?userId={id} - List the group conversations a user
+    // belongs to
+    @GetMapping
+    public ResponseEntity<List<ConversationResponseDTO>> getConversations(@RequestParam Long userId) {
+        return ResponseEntity.ok(conversationService.getConversations(userId));
+    }
+
+    // GET /api/conversations/{id}/members - List members and their watermarks
+    @GetMapping("/{id}/members")
+    public ResponseEntity<List<ConversationMemberDTO>> getMembers(@PathVariable Long id) {
+        return ResponseEntity.ok(conversationService.getMembers(id));
+    }
+
+    // POST /api/conversations/{id}/members - Add members
+    @PostMapping("/{id}/members")
+    public ResponseEntity<Void> addMembers(@PathVariable Long id,
+            @RequestBody ConversationMembersRequestDTO request) {
+        conversationService.addMembers(id, request);
+        return ResponseEntity.noContent().build();
+    }
+
+    // DELETE /api/conversations/{id}/members/{userId} - Remove a member
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<Void> removeMember(@PathVariable Long id, @PathVariable Long userId) {
+        conversationService.removeMember(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST /api/conversations/{id}/messages - Send a message to the group
+    @PostMapping("/{id}/messages")
+    public ResponseEntity<MessageResponseDTO> sendMessage(@PathVariable Long id,
+            @RequestBody GroupMessageRequestDTO request) {
+        return ResponseEntity.ok(messageService.sendGroupMessage(id, request));
+    }
+
+    // GET /api/conversations/{id}/messages?userId={id}&before={ts}&beforeId={id}&limit={n}
+    // - Page backwards through a group's messages, newest first; before and
+    // beforeId are the timestamp and id of the oldest message already shown
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<List<MessageResponseDTO>> getMessages(@PathVariable Long id, @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(messageService.getGroupHistory(id, userId, before, beforeId, limit));
+    }
+
+    // POST /api/conversations/{id}/read - Mark the group as read up to a message
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(@PathVariable Long id, @RequestBody GroupReceiptRequestDTO request) {
+        conversationService.markRead(id, request);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST /api/conversations/{id}/delivered - Mark the group as delivered up to
+    // a message
+    @PostMapping("/{id}/delivered")
+    public ResponseEntity<Void> markDelivered(@PathVariable Long id, @RequestBody GroupReceiptRequestDTO request) {
+        conversationService.markDelivered(id, request);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,12 +2,18 @@ package com.networkpro.message_service.controller;
 
 import com.networkpro.message_service.dto.MessageRequestDTO;
 import com.networkpro.message_service.dto.MessageResponseDTO;
+import com.networkpro.message_service.dto.MessageSearchResultDTO;
+import com.networkpro.message_service.dto.ReceiptRequestDTO;
+import com.networkpro.message_service.dto.SyncResponseDTO;
 import com.networkpro.message_service.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -21,6 +27,13 @@ public class MessageController {
         return ResponseEntity.ok(messageService.sendMessage(request));
     }
 
+    // POST /api/messages/batched - Send a message through the group-commit writer
+    @PostMapping("/batched")
+    public CompletableFuture<ResponseEntity<MessageResponseDTO>> sendMessageBatched(
+            @RequestBody MessageRequestDTO request) {
+        return messageService.sendMessageBatched(request).thenApply(ResponseEntity::ok);
+    }
+
     // GET /api/messages/{id} - Get a message by ID
     @GetMapping("/{id}")
     public ResponseEntity<MessageResponseDTO> getMessageById(@PathVariable Long id) {
@@ -35,12 +48,59 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getConversation(user1, user2));
     }
 
+    // GET /api/messages/conversation/history?user1={id1}&user2={id2}&before={ts}&beforeId={id}&limit={n}
+    // - Page backwards through a conversation, newest first; before and
+    // beforeId are the timestamp and id of the oldest message already shown
+    @GetMapping("/conversation/history")
+    public ResponseEntity<List<MessageResponseDTO>> getConversationHistory(@RequestParam Long user1,
+            @RequestParam Long user2,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(messageService.getConversationHistory(user1, user2, before, beforeId, limit));
+    }
+
     // GET /api/messages/inbox/{userId} - Get all messages received by a user
     @GetMapping("/inbox/{userId}")
     public ResponseEntity<List<MessageResponseDTO>> getInbox(@PathVariable Long userId) {
         return ResponseEntity.ok(messageService.getInbox(userId));
     }
 
+    // GET /api/messages/search?userId={id}&q={query}&cursor={c}&size={n} - Search
+    // the recent messages of every conversation a user takes part in; cursor
+    // is the previous page's nextCursor. Archived months are not searched
+    @GetMapping("/search")
+    public ResponseEntity<MessageSearchResultDTO> searchMessages(@RequestParam Long userId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.searchMessages(userId, query, cursor, size));
+    }
+
+    // POST /api/messages/read - Mark a conversation as read up to a message
+    @PostMapping("/read")
+    public ResponseEntity<Void> markRead(@RequestBody ReceiptRequestDTO request) {
+        messageService.markRead(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST /api/messages/delivered - Mark a conversation as delivered up to a
+    // message
+    @PostMapping("/delivered")
+    public ResponseEntity<Void> markDelivered(@RequestBody ReceiptRequestDTO request) {
+        messageService.markDelivered(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET /api/messages/sync?userId={id}&token={token}&limit={n} - Changes since
+    // a device's last sync; omit the token for a full initial sync
+    @GetMapping("/sync")
+    public ResponseEntity<SyncResponseDTO> sync(@RequestParam Long userId,
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(messageService.sync(userId, token, limit));
+    }
+
     // DELETE /api/messages/{id} - Delete a message
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMessage(@PathVariable Long id) {
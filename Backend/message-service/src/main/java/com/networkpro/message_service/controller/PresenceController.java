@@ -0,0 +1,45 @@
+package com.networkpro.message_service.controller;
+
+import com.networkpro.message_service.dto.PresenceDTO;
+import com.networkpro.message_service.dto.TypingEventDTO;
+import com.networkpro.message_service.service.PresenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/presence")
+public class PresenceController {
+    @Autowired
+    private PresenceService presenceService;
+
+    // POST /api/presence/{userId}/heartbeat - Keep a user online
+    @PostMapping("/{userId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable Long userId) {
+        presenceService.heartbeat(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // DELETE /api/presence/{userId} - Mark a user offline right away
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> goOffline(@PathVariable Long userId) {
+        presenceService.goOffline(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET /api/presence?userIds={id1},{id2} - Online status of several users
+    @GetMapping
+    public ResponseEntity<List<PresenceDTO>> getPresence(@RequestParam List<Long> userIds) {
+        return ResponseEntity.ok(presenceService.getPresence(userIds));
+    }
+
+    // POST /api/presence/typing - Tell a peer that a user started or stopped
+    // typing
+    @PostMapping("/typing")
+    public ResponseEntity<Void> typing(@RequestBody TypingEventDTO event) {
+        presenceService.typing(event);
+        return ResponseEntity.noContent().build();
+    }
+}
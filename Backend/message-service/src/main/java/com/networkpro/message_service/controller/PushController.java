@@ -0,0 +1,20 @@
+package com.networkpro.message_service.controller;
+
+import com.networkpro.message_service.service.PushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/push")
+public class PushController {
+    @Autowired
+    private PushService pushService;
+
+    // GET /api/push/{userId} - Open a server-sent event stream for a user
+    @GetMapping(value = "/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable Long userId) {
+        return pushService.subscribe(userId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDTO {
+    private Long id;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String sha256;
+}
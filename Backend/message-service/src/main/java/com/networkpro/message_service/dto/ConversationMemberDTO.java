@@ -0,0 +1,18 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMemberDTO {
+    private Long userId;
+    private LocalDateTime joinedAt;
+    // Message seqs, not ids.
+    private long deliveredUpTo;
+    private long readUpTo;
+}
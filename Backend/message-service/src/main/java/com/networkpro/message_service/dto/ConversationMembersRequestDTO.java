@@ -0,0 +1,10 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ConversationMembersRequestDTO {
+    private List<Long> userIds;
+}
@@ -0,0 +1,12 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ConversationRequestDTO {
+    private String name;
+    private Long creatorId;
+    private List<Long> memberIds;
+}
@@ -0,0 +1,17 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationResponseDTO {
+    private Long id;
+    private String name;
+    private Long createdBy;
+    private LocalDateTime createdAt;
+}
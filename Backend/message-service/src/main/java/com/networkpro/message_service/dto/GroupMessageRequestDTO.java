@@ -0,0 +1,12 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GroupMessageRequestDTO {
+    private Long senderId;
+    private String content;
+    private List<Long> attachmentIds;
+}
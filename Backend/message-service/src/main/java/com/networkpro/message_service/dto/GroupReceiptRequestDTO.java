@@ -0,0 +1,9 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+@Data
+public class GroupReceiptRequestDTO {
+    private Long userId;
+    private Long upToMessageId;
+}
@@ -2,13 +2,18 @@ package com.networkpro.message_service.dto;
 
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class MessageResponseDTO {
     private Long id;
     private Long senderId;
     private Long receiverId;
+    private Long conversationId;
     private String content;
     private LocalDateTime timestamp;
+    // Position in the conversation; receipt watermarks are compared against it.
+    private long seq;
     private String status;
+    private List<AttachmentDTO> attachments;
 }
\ No newline at end of file
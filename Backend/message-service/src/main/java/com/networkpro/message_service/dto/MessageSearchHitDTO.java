@@ -0,0 +1,13 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchHitDTO {
+    private MessageResponseDTO message;
+    private String snippet;
+}
@@ -0,0 +1,17 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResultDTO {
+    private List<MessageSearchHitDTO> hits;
+    // Opaque; pass it back to get the next page. Null on the last page.
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDTO {
+    private Long userId;
+    private boolean online;
+    private LocalDateTime lastHeartbeatAt;
+}
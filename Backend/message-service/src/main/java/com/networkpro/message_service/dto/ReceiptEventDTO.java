@@ -0,0 +1,19 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptEventDTO {
+    private Long userId;
+    private Long peerId;
+    private String status;
+    private Long upToMessageId;
+    // Set for group conversations, where peerId is not used.
+    private Long conversationId;
+    // Seq of upToMessageId: every message at or below it has reached the status.
+    private long upToSeq;
+}
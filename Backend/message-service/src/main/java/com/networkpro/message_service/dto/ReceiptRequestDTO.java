@@ -0,0 +1,10 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+@Data
+public class ReceiptRequestDTO {
+    private Long userId;
+    private Long peerId;
+    private Long upToMessageId;
+}
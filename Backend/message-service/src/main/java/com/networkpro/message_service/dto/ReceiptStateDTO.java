@@ -0,0 +1,16 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptStateDTO {
+    private Long userId;
+    private Long peerId;
+    // Message seqs, not ids.
+    private long deliveredUpTo;
+    private long readUpTo;
+}
@@ -0,0 +1,14 @@
+package com.networkpro.message_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SyncResponseDTO {
+    private List<MessageResponseDTO> messages;
+    private List<ReceiptStateDTO> receipts;
+    private List<Long> deletedMessageIds;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,14 @@
+package com.networkpro.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEventDTO {
+    private Long userId;
+    private Long peerId;
+    private boolean typing;
+}
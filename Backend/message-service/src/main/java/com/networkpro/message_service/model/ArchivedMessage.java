@@ -0,0 +1,36 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold history moved out of expired monthly message partitions. Ids are the
+ * original message ids and content keeps the codec format of {@link Message};
+ * the column additionally uses LZ4 TOAST compression where available.
+ */
+@Entity
+@Table(name = "message_archive", indexes = {
+        @Index(name = "idx_message_archive_sender_receiver", columnList = "sender_id, receiver_id, timestamp"),
+        @Index(name = "idx_message_archive_receiver", columnList = "receiver_id"),
+        @Index(name = "idx_message_archive_conversation", columnList = "conversation_id, timestamp")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedMessage {
+    @Id
+    private Long id;
+
+    private Long senderId;
+    private Long receiverId;
+    private Long conversationId;
+    @Convert(converter = MessageContentConverter.class)
+    @Column(columnDefinition = "bytea")
+    private String content;
+    private LocalDateTime timestamp;
+    private long seq;
+    private String status;
+    private int attachmentCount;
+}
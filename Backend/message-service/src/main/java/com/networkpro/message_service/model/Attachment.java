@@ -0,0 +1,36 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of a file attached to a message. The bytes live on local disk under
+ * their SHA-256 (see AttachmentStore), so identical uploads share one file.
+ * An attachment is uploaded first and linked to its message when the message
+ * is sent; messageId is a plain column because the partitioned message table
+ * has a composite key.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_attachment_message", columnList = "message_id"),
+        @Index(name = "idx_attachment_sha256", columnList = "sha256")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Attachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long messageId;
+    private Long uploaderId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    @Column(length = 64)
+    private String sha256;
+    private LocalDateTime createdAt;
+}
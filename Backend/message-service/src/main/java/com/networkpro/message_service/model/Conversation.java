@@ -0,0 +1,26 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A multi-participant (group) conversation. Members and their watermarks live
+ * in {@link ConversationMember}; messages reference the conversation through
+ * {@link Message#getConversationId()} and are stored once, whatever the group
+ * size.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Conversation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+    private Long createdBy;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Membership of a user in a group conversation, with the same forward-only
+ * watermarks as {@link ReadReceipt}: every message of the conversation with a
+ * seq at or below a mark has reached that state for this member.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "conversation_id", "user_id" }),
+        indexes = @Index(name = "idx_conversation_member_user", columnList = "user_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationMember {
+    // Pooled sequence ids so adding a large group's members is one JDBC batch.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversation_member_seq")
+    @SequenceGenerator(name = "conversation_member_seq", sequenceName = "conversation_member_seq",
+            allocationSize = 50)
+    private Long id;
+
+    private Long conversationId;
+    private Long userId;
+    private LocalDateTime joinedAt;
+    private long deliveredUpTo;
+    private long readUpTo;
+}
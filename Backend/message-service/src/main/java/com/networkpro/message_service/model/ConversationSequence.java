@@ -0,0 +1,23 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Counter behind {@link Message#getSeq()}, one row per direct or group
+ * conversation. A send bumps the row inside its insert transaction and holds
+ * the row lock until it commits, so the sends of one conversation commit in
+ * sequence order.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationSequence {
+    // "direct:<low user>:<high user>" or "group:<conversation id>".
+    @Id
+    private String conversationKey;
+
+    private long lastSeq;
+}
@@ -2,21 +2,52 @@ package com.networkpro.message_service.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.PartitionKey;
 import java.time.LocalDateTime;
 
+// Range-partitioned by month on timestamp; the physical table and its indexes
+// are owned by MessagePartitionManager.
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Message {
+    // Sequence ids with a pooled optimizer let Hibernate assign ids up front and
+    // batch the inserts; IDENTITY forces one round trip per row.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_seq")
+    @SequenceGenerator(name = "message_seq", sequenceName = "message_seq", allocationSize = 50)
     private Long id;
 
     private Long senderId;
+    // Set for direct messages; group messages have a conversationId instead.
     private Long receiverId;
+    private Long conversationId;
+    @Convert(converter = MessageContentConverter.class)
+    @Column(columnDefinition = "bytea")
     private String content;
+    @PartitionKey
     private LocalDateTime timestamp;
+    // Position within the conversation in commit order, set by MessageSequencer;
+    // receipt watermarks refer to it.
+    private long seq;
     private String status; // e.g., SENT, DELIVERED, READ
-}
\ No newline at end of file
+    // Lets reads skip the attachment lookup for messages without any.
+    private int attachmentCount;
+
+    // Tombstone kept for delta sync; deleted rows have no content.
+    private boolean deleted;
+
+    // Position in the sync change feed, assigned by the database from
+    // message_change_seq on insert and again when the message is deleted.
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    // Plain text to index; stored as a GIN-indexed tsvector and never read back.
+    @ToString.Exclude
+    @Column(name = "search_vector", columnDefinition = "tsvector")
+    @ColumnTransformer(read = "null", write = "to_tsvector('simple', ?)")
+    private String searchText;
+}
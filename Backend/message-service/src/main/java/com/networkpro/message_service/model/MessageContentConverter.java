@@ -0,0 +1,28 @@
+package com.networkpro.message_service.model;
+
+import com.networkpro.message_service.service.MessageContentCodec;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores message bodies through {@link MessageContentCodec}. Hibernate obtains
+ * converters from the Spring context, so the codec is injected.
+ */
+@Converter
+public class MessageContentConverter implements AttributeConverter<String, byte[]> {
+    private final MessageContentCodec codec;
+
+    public MessageContentConverter(MessageContentCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return codec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return codec.decode(stored);
+    }
+}
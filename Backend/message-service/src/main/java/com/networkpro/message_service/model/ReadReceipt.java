@@ -0,0 +1,32 @@
+package com.networkpro.message_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-participant high-water marks for a direct conversation: every message
+ * {@code peerId} sent to {@code userId} with a {@link Message#getSeq() seq} at
+ * or below a mark has reached that state. Sends of a conversation commit in
+ * seq order, so a single row covers the whole conversation.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "peer_id" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private Long peerId;
+    private long deliveredUpTo;
+    private long readUpTo;
+
+    // Position in the sync change feed; assigned by the database on every
+    // upsert from message_change_seq.
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+}
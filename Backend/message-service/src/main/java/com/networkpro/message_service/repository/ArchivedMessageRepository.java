@@ -0,0 +1,25 @@
+package com.networkpro.message_service.repository;
+
+import com.networkpro.message_service.model.ArchivedMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedMessageRepository extends JpaRepository<ArchivedMessage, Long> {
+    @Query("SELECT m FROM ArchivedMessage m WHERE ((m.senderId = :user1 AND m.receiverId = :user2) "
+            + "OR (m.senderId = :user2 AND m.receiverId = :user1)) "
+            + "AND (m.timestamp, m.id) < (:before, :beforeId) ORDER BY m.timestamp DESC, m.id DESC")
+    List<ArchivedMessage> findConversationBefore(@Param("user1") Long user1, @Param("user2") Long user2,
+            @Param("before") LocalDateTime before, @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("SELECT m FROM ArchivedMessage m WHERE m.conversationId = :conversationId "
+            + "AND (m.timestamp, m.id) < (:before, :beforeId) ORDER BY m.timestamp DESC, m.id DESC")
+    List<ArchivedMessage> findGroupBefore(@Param("conversationId") Long conversationId,
+            @Param("before") LocalDateTime before, @Param("beforeId") long beforeId, Pageable pageable);
+}
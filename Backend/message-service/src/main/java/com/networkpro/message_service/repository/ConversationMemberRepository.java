@@ -0,0 +1,45 @@
+package com.networkpro.message_service.repository;
+
+import com.networkpro.message_service.model.ConversationMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConversationMemberRepository extends JpaRepository<ConversationMember, Long> {
+    List<ConversationMember> findByConversationId(Long conversationId);
+
+    List<ConversationMember> findByConversationIdIn(Collection<Long> conversationIds);
+
+    boolean existsByConversationIdAndUserId(Long conversationId, Long userId);
+
+    @Query("SELECT cm.userId FROM ConversationMember cm WHERE cm.conversationId = :conversationId")
+    List<Long> findUserIds(@Param("conversationId") Long conversationId);
+
+    @Modifying
+    @Transactional
+    int deleteByConversationIdAndUserId(Long conversationId, Long userId);
+
+    // Same forward-only rules as the direct-conversation receipts; zero rows
+    // means the user is not a member.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversation_member SET "
+            + "delivered_up_to = GREATEST(delivered_up_to, :upTo), read_up_to = GREATEST(read_up_to, :upTo) "
+            + "WHERE conversation_id = :conversationId AND user_id = :userId", nativeQuery = true)
+    int markRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId,
+            @Param("upTo") long upTo);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversation_member SET delivered_up_to = GREATEST(delivered_up_to, :upTo) "
+            + "WHERE conversation_id = :conversationId AND user_id = :userId", nativeQuery = true)
+    int markDelivered(@Param("conversationId") Long conversationId, @Param("userId") Long userId,
+            @Param("upTo") long upTo);
+}
@@ -0,0 +1,16 @@
+package com.networkpro.message_service.repository;
+
+import com.networkpro.message_service.model.Conversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    @Query("SELECT c FROM Conversation c WHERE c.id IN "
+            + "(SELECT cm.conversationId FROM ConversationMember cm WHERE cm.userId = :userId) ORDER BY c.id")
+    List<Conversation> findByMember(@Param("userId") Long userId);
+}
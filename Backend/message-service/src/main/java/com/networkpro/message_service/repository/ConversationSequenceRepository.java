@@ -0,0 +1,21 @@
+package com.networkpro.message_service.repository;
+
+import com.networkpro.message_service.model.ConversationSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConversationSequenceRepository extends JpaRepository<ConversationSequence, String> {
+    // Reserves `count` numbers and returns the highest. Must run in the
+    // transaction that stores the messages: the row stays locked until it ends.
+    @Query(value = "INSERT INTO conversation_sequence (conversation_key, last_seq) VALUES (:key, :count) "
+            + "ON CONFLICT (conversation_key) DO UPDATE SET "
+            + "last_seq = conversation_sequence.last_seq + EXCLUDED.last_seq RETURNING last_seq", nativeQuery = true)
+    long reserve(@Param("key") String key, @Param("count") int count);
+
+    // Highest number handed out by a committed send, or zero.
+    @Query("SELECT COALESCE(MAX(s.lastSeq), 0) FROM ConversationSequence s WHERE s.conversationKey = :key")
+    long findLastSeq(@Param("key") String key);
+}
@@ -1,15 +1,110 @@
 package com.networkpro.message_service.repository;
 
 import com.networkpro.message_service.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findBySenderIdAndReceiverIdOrSenderIdAndReceiverId(Long senderId1, Long receiverId1, Long senderId2,
-            Long receiverId2);
+    String MEMBER_OF = "(m.sender_id = :userId OR m.receiver_id = :userId OR m.conversation_id IN "
+            + "(SELECT cm.conversation_id FROM conversation_member cm WHERE cm.user_id = :userId)) ";
+    // The tsquery is written out in each branch so the planner sees it as a
+    // constant and can judge how common its words are.
+    String SEARCH_MATCH = "m.search_vector @@ websearch_to_tsquery('simple', :query) AND NOT m.deleted "
+            + "AND m.\"timestamp\" <= CAST(:asOf AS timestamp) ";
 
-    List<Message> findByReceiverId(Long receiverId);
-}
\ No newline at end of file
+    List<Message> findBySenderIdAndReceiverIdAndDeletedFalseOrSenderIdAndReceiverIdAndDeletedFalse(Long senderId1,
+            Long receiverId1, Long senderId2, Long receiverId2);
+
+    List<Message> findByReceiverIdAndDeletedFalse(Long receiverId);
+
+    // Messages from `from` up to, but not including, the (to, toId) keyset
+    // position. The plain timestamp bounds let the planner prune to the
+    // partitions covering [from, to].
+    @Query("SELECT m FROM Message m WHERE ((m.senderId = :user1 AND m.receiverId = :user2) "
+            + "OR (m.senderId = :user2 AND m.receiverId = :user1)) "
+            + "AND m.timestamp >= :from AND m.timestamp <= :to AND (m.timestamp, m.id) < (:to, :toId) "
+            + "AND m.deleted = false ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findConversationBetween(@Param("user1") Long user1, @Param("user2") Long user2,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("toId") long toId,
+            Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId "
+            + "AND m.timestamp >= :from AND m.timestamp <= :to AND (m.timestamp, m.id) < (:to, :toId) "
+            + "AND m.deleted = false ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findGroupBetween(@Param("conversationId") Long conversationId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("toId") long toId,
+            Pageable pageable);
+
+    // Full-text matches in the conversations of one user, ranked, after the
+    // (rank, id) search-after position. Only the newest matches are ranked:
+    // up to :candidates of the direct messages the user sent, as many of those
+    // they received, and of their groups' messages, at most :perConversation
+    // a group. Each branch leads with its key, so it reads the (key,
+    // search_vector) GIN index, or for very common words walks the (key,
+    // timestamp) index newest first, and never touches other users' matches.
+    // btree_gin only compares like types, so userId must be bound as a bigint.
+    // Messages after :asOf are left out, so pages do not shift as new ones
+    // arrive. Archived months carry no search document and never match.
+    @Query(value = "SELECT c.id, CAST(ts_rank(c.search_vector, websearch_to_tsquery('simple', :query)) AS float8) "
+            + "AS rank FROM ("
+            + "(SELECT m.id, m.search_vector FROM message m WHERE m.sender_id = :userId AND m.conversation_id IS NULL "
+            + "AND " + SEARCH_MATCH + "ORDER BY m.\"timestamp\" DESC LIMIT :candidates) "
+            + "UNION ALL (SELECT m.id, m.search_vector FROM message m WHERE m.receiver_id = :userId "
+            + "AND m.sender_id <> :userId AND " + SEARCH_MATCH + "ORDER BY m.\"timestamp\" DESC LIMIT :candidates) "
+            + "UNION ALL (SELECT g.id, g.search_vector FROM conversation_member cm CROSS JOIN LATERAL ("
+            + "SELECT m.id, m.search_vector, m.\"timestamp\" FROM message m "
+            + "WHERE m.conversation_id = cm.conversation_id AND " + SEARCH_MATCH
+            + "ORDER BY m.\"timestamp\" DESC LIMIT :perConversation) g "
+            + "WHERE cm.user_id = :userId ORDER BY g.\"timestamp\" DESC LIMIT :candidates)) c "
+            + "WHERE (CAST(ts_rank(c.search_vector, websearch_to_tsquery('simple', :query)) AS float8), c.id) "
+            + "< (:afterRank, :afterId) ORDER BY rank DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<SearchHit> search(@Param("userId") Long userId, @Param("query") String query,
+            @Param("asOf") LocalDateTime asOf, @Param("afterRank") double afterRank, @Param("afterId") long afterId,
+            @Param("candidates") int candidates, @Param("perConversation") int perConversation,
+            @Param("limit") int limit);
+
+    // For the rest of the calling transaction, plans every statement for its
+    // actual parameters instead of reusing a generic plan once it is prepared.
+    @Query(value = "SELECT set_config('plan_cache_mode', 'force_custom_plan', true)", nativeQuery = true)
+    String useCustomPlans();
+
+    // Inserts, tombstones included, after a sync position, in change order:
+    // everything past `version`, plus changes at or below it whose transaction
+    // was still in flight when `snapshot` was taken.
+    @Query(value = "SELECT * FROM (SELECT m.* FROM message m WHERE " + MEMBER_OF
+            + "AND m.change_version > :version "
+            + "UNION ALL SELECT m.* FROM message m WHERE " + MEMBER_OF
+            + "AND m.change_version <= :version AND m.change_xid >= pg_snapshot_xmin(CAST(:snapshot AS pg_snapshot)) "
+            + "AND NOT pg_visible_in_snapshot(m.change_xid, CAST(:snapshot AS pg_snapshot))) changed "
+            + "ORDER BY change_version LIMIT :limit", nativeQuery = true)
+    List<Message> findChangedSince(@Param("userId") Long userId, @Param("version") long version,
+            @Param("snapshot") String snapshot, @Param("limit") int limit);
+
+    // Snapshot of the calling transaction, as pg_snapshot text.
+    @Query(value = "SELECT CAST(pg_current_snapshot() AS text)", nativeQuery = true)
+    String currentSnapshot();
+
+    // Deletes leave a tombstone so sync clients learn about them; the body and
+    // search document are dropped right away.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE message SET deleted = true, content = NULL, search_vector = NULL, "
+            + "change_version = nextval('message_change_seq'), change_xid = pg_current_xact_id() "
+            + "WHERE id = :id AND NOT deleted", nativeQuery = true)
+    int markDeleted(@Param("id") Long id);
+
+    interface SearchHit {
+        Long getId();
+
+        double getRank();
+    }
+}
@@ -0,0 +1,53 @@
+package com.networkpro.message_service.repository;
+
+import com.networkpro.message_service.model.ReadReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReadReceiptRepository extends JpaRepository<ReadReceipt, Long> {
+    Optional<ReadReceipt> findByUserIdAndPeerId(Long userId, Long peerId);
+
+    List<ReadReceipt> findByUserId(Long userId);
+
+    List<ReadReceipt> findByUserIdOrPeerId(Long userId, Long peerId);
+
+    List<ReadReceipt> findByUserIdAndPeerIdOrUserIdAndPeerId(Long userId1, Long peerId1, Long userId2, Long peerId2);
+
+    // Same selection as MessageRepository.findChangedSince.
+    @Query(value = "SELECT * FROM (SELECT r.* FROM read_receipt r WHERE (r.user_id = :userId OR r.peer_id = :userId) "
+            + "AND r.change_version > :version "
+            + "UNION ALL SELECT r.* FROM read_receipt r WHERE (r.user_id = :userId OR r.peer_id = :userId) "
+            + "AND r.change_version <= :version AND r.change_xid >= pg_snapshot_xmin(CAST(:snapshot AS pg_snapshot)) "
+            + "AND NOT pg_visible_in_snapshot(r.change_xid, CAST(:snapshot AS pg_snapshot))) changed "
+            + "ORDER BY change_version LIMIT :limit", nativeQuery = true)
+    List<ReadReceipt> findChangedSince(@Param("userId") Long userId, @Param("version") long version,
+            @Param("snapshot") String snapshot, @Param("limit") int limit);
+
+    // Watermarks only move forward, and reading a message implies it was delivered.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO read_receipt (user_id, peer_id, delivered_up_to, read_up_to) "
+            + "VALUES (:userId, :peerId, :upTo, :upTo) "
+            + "ON CONFLICT (user_id, peer_id) DO UPDATE SET "
+            + "delivered_up_to = GREATEST(read_receipt.delivered_up_to, EXCLUDED.delivered_up_to), "
+            + "read_up_to = GREATEST(read_receipt.read_up_to, EXCLUDED.read_up_to), "
+            + "change_version = nextval('message_change_seq'), change_xid = pg_current_xact_id()", nativeQuery = true)
+    int markRead(@Param("userId") Long userId, @Param("peerId") Long peerId, @Param("upTo") long upTo);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO read_receipt (user_id, peer_id, delivered_up_to, read_up_to) "
+            + "VALUES (:userId, :peerId, :upTo, 0) "
+            + "ON CONFLICT (user_id, peer_id) DO UPDATE SET "
+            + "delivered_up_to = GREATEST(read_receipt.delivered_up_to, EXCLUDED.delivered_up_to), "
+            + "change_version = nextval('message_change_seq'), change_xid = pg_current_xact_id()", nativeQuery = true)
+    int markDelivered(@Param("userId") Long userId, @Param("peerId") Long peerId, @Param("upTo") long upTo);
+}
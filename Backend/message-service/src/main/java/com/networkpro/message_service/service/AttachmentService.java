@@ -0,0 +1,143 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.dto.AttachmentDTO;
+import com.networkpro.message_service.model.Attachment;
+import com.networkpro.message_service.repository.AttachmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Attachment metadata and transfer metrics. Files are kept by
+ * {@link AttachmentStore}; this service records who uploaded what and links
+ * uploads to the message they are sent with.
+ */
+@Service
+public class AttachmentService {
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentStore attachmentStore;
+    private final long maxBytes;
+
+    private final Counter uploadBytes;
+    private final Counter deduplicatedUploads;
+    private final DistributionSummary uploadThroughput;
+    private final Counter downloadBytes;
+    private final DistributionSummary downloadThroughput;
+
+    public AttachmentService(AttachmentRepository attachmentRepository, AttachmentStore attachmentStore,
+            MeterRegistry meterRegistry,
+            @Value("${message.attachments.max-bytes:26214400}") long maxBytes) {
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentStore = attachmentStore;
+        this.maxBytes = maxBytes;
+        this.uploadBytes = meterRegistry.counter("message.attachments.upload.bytes");
+        this.deduplicatedUploads = meterRegistry.counter("message.attachments.upload.deduplicated");
+        this.uploadThroughput = DistributionSummary.builder("message.attachments.upload.throughput")
+                .baseUnit("bytes/s").register(meterRegistry);
+        this.downloadBytes = meterRegistry.counter("message.attachments.download.bytes");
+        this.downloadThroughput = DistributionSummary.builder("message.attachments.download.throughput")
+                .baseUnit("bytes/s").register(meterRegistry);
+    }
+
+    public AttachmentDTO upload(Long uploaderId, String fileName, String contentType, InputStream content)
+            throws IOException {
+        if (uploaderId == null) {
+            throw new IllegalArgumentException("uploaderId is required");
+        }
+        long start = System.nanoTime();
+        AttachmentStore.StoredFile stored = attachmentStore.store(content, maxBytes);
+        recordThroughput(uploadThroughput, stored.size(), System.nanoTime() - start);
+        uploadBytes.increment(stored.size());
+        if (!stored.created()) {
+            deduplicatedUploads.increment();
+        }
+        Attachment attachment = attachmentRepository.save(Attachment.builder()
+                .uploaderId(uploaderId)
+                .fileName(fileName)
+                .contentType(contentType != null ? contentType : "application/octet-stream")
+                .size(stored.size())
+                .sha256(stored.sha256())
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build());
+        return toDTO(attachment);
+    }
+
+    public Attachment getAttachment(Long id) {
+        return attachmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    }
+
+    public Path contentPath(Attachment attachment) {
+        return attachmentStore.resolve(attachment.getSha256());
+    }
+
+    // Early check, so a bad id is rejected before the message is queued or
+    // numbered; link still decides, inside the insert transaction.
+    public void requireLinkable(Long senderId, List<Long> attachmentIds) {
+        if (attachmentIds == null || attachmentIds.isEmpty()) {
+            return;
+        }
+        long distinct = attachmentIds.stream().distinct().count();
+        if (attachmentRepository.countLinkable(attachmentIds, senderId) != distinct) {
+            throw new IllegalArgumentException("Attachments must be unsent uploads of the sender");
+        }
+    }
+
+    // Must run in the transaction that inserts the message. Throws, rolling
+    // the send back, when any upload was linked to another message meanwhile.
+    public void link(Long messageId, Long senderId, List<Long> attachmentIds) {
+        if (attachmentIds == null || attachmentIds.isEmpty()) {
+            return;
+        }
+        long distinct = attachmentIds.stream().distinct().count();
+        if (attachmentRepository.link(messageId, attachmentIds, senderId) != distinct) {
+            throw new IllegalArgumentException("Attachments must be unsent uploads of the sender");
+        }
+    }
+
+    public Map<Long, List<AttachmentDTO>> findByMessageIds(Collection<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Map.of();
+        }
+        return attachmentRepository.findByMessageIdIn(messageIds).stream()
+                .collect(Collectors.groupingBy(Attachment::getMessageId,
+                        Collectors.mapping(this::toDTO, Collectors.toList())));
+    }
+
+    // Files stay on disk: other attachments may share them by hash.
+    public void deleteForMessage(Long messageId) {
+        attachmentRepository.deleteByMessageId(messageId);
+    }
+
+    public void recordDownload(long bytes) {
+        downloadBytes.increment(bytes);
+    }
+
+    public void recordDownload(long bytes, long elapsedNanos) {
+        recordDownload(bytes);
+        recordThroughput(downloadThroughput, bytes, elapsedNanos);
+    }
+
+    private static void recordThroughput(DistributionSummary summary, long bytes, long elapsedNanos) {
+        if (bytes > 0 && elapsedNanos > 0) {
+            summary.record(bytes * 1e9 / elapsedNanos);
+        }
+    }
+
+    private AttachmentDTO toDTO(Attachment attachment) {
+        return new AttachmentDTO(attachment.getId(), attachment.getFileName(), attachment.getContentType(),
+                attachment.getSize(), attachment.getSha256());
+    }
+}
@@ -0,0 +1,82 @@
+package com.networkpro.message_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed attachment files on local disk, stored as
+ * {@code <dir>/ab/cd/<sha256>}. Uploads stream through a fixed buffer into a
+ * temporary file while being hashed, then are renamed into place, or dropped
+ * when a file with the same hash already exists. Stored files never change.
+ */
+@Component
+public class AttachmentStore {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public AttachmentStore(@Value("${message.attachments.dir:data/attachments}") String dir) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath();
+        this.incoming = root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    public StoredFile store(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("Attachment is larger than " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                return new StoredFile(hash, size, false);
+            }
+            Files.createDirectories(target.getParent());
+            // Identical content under the same name, so a concurrent upload of
+            // the same file winning the rename is harmless.
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredFile(hash, size, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path resolve(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // `created` is false when the upload was a duplicate of an existing file.
+    public record StoredFile(String sha256, long size, boolean created) {
+    }
+}
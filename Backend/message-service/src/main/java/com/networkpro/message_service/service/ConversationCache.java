@@ -0,0 +1,233 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.model.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process cache of the newest messages of active conversations. Each
+ * conversation keeps a fixed-size ring buffer; conversations are evicted
+ * least-recently-used once the estimated size of all buffers exceeds
+ * {@code message.cache.max-bytes}.
+ *
+ * A buffer can answer a first-page read when it holds at least the requested
+ * number of messages, or when it is known to hold the whole conversation.
+ */
+@Component
+public class ConversationCache {
+    private static final Comparator<Message> NEWEST_FIRST = Comparator
+            .comparing(Message::getTimestamp).thenComparing(Message::getId).reversed();
+    // Rough per-message cost of the object, its boxed fields and the String header.
+    private static final int MESSAGE_OVERHEAD_BYTES = 160;
+
+    private final int messagesPerConversation;
+    private final long maxBytes;
+    private final LinkedHashMap<String, RingBuffer> buffers = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ConversationCache(MeterRegistry meterRegistry,
+            @Value("${message.cache.messages-per-conversation:50}") int messagesPerConversation,
+            @Value("${message.cache.max-bytes:67108864}") long maxBytes) {
+        this.messagesPerConversation = messagesPerConversation;
+        this.maxBytes = maxBytes;
+        this.hits = meterRegistry.counter("message.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("message.cache.requests", "result", "miss");
+        Gauge.builder("message.cache.bytes", this, ConversationCache::totalBytes).register(meterRegistry);
+        Gauge.builder("message.cache.conversations", this, ConversationCache::size).register(meterRegistry);
+    }
+
+    public static String directKey(Long user1, Long user2) {
+        return "direct:" + Math.min(user1, user2) + ":" + Math.max(user1, user2);
+    }
+
+    public static String groupKey(Long conversationId) {
+        return "group:" + conversationId;
+    }
+
+    public int capacity() {
+        return messagesPerConversation;
+    }
+
+    // Newest-first first page, or null when the buffer cannot answer it.
+    public synchronized List<Message> firstPage(String key, int limit) {
+        RingBuffer buffer = buffers.get(key);
+        if (buffer == null || (buffer.size < limit && !buffer.complete)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Message> messages = buffer.newestFirst();
+        return messages.size() > limit ? messages.subList(0, limit) : messages;
+    }
+
+    // A message already in the buffer, e.g. put there by a fill that read it
+    // back from the database first, is not added twice.
+    public synchronized void append(String key, Message message) {
+        RingBuffer buffer = buffers.get(key);
+        if (buffer == null) {
+            buffer = new RingBuffer(messagesPerConversation);
+            buffers.put(key, buffer);
+        }
+        if (buffer.contains(message.getId())) {
+            return;
+        }
+        totalBytes += buffer.add(snapshot(message));
+        evictOverflow();
+    }
+
+    // Merges messages loaded from the database into a conversation's buffer;
+    // `complete` marks that they are the entire conversation. Sends appended
+    // while the load ran are kept, and the database copy wins for a message
+    // in both.
+    public synchronized void fill(String key, List<Message> newestFirst, boolean complete) {
+        Map<Long, Message> merged = new HashMap<>();
+        RingBuffer previous = buffers.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+            previous.newestFirst().forEach(message -> merged.put(message.getId(), message));
+        }
+        newestFirst.forEach(message -> merged.put(message.getId(), snapshot(message)));
+        List<Message> messages = new ArrayList<>(merged.values());
+        messages.sort(NEWEST_FIRST);
+        RingBuffer buffer = new RingBuffer(messagesPerConversation);
+        int count = Math.min(messages.size(), messagesPerConversation);
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.add(messages.get(i));
+        }
+        buffer.complete = complete && messages.size() <= messagesPerConversation;
+        buffers.put(key, buffer);
+        totalBytes += buffer.bytes;
+        evictOverflow();
+    }
+
+    public synchronized void remove(String key, Long messageId) {
+        RingBuffer buffer = buffers.get(key);
+        if (buffer != null) {
+            totalBytes -= buffer.remove(messageId);
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return buffers.size();
+    }
+
+    private void evictOverflow() {
+        Iterator<RingBuffer> eldest = buffers.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    // Cached copies carry only what reads need, and are safe from later
+    // changes to the entity.
+    private static Message snapshot(Message message) {
+        return Message.builder()
+                .id(message.getId())
+                .senderId(message.getSenderId())
+                .receiverId(message.getReceiverId())
+                .conversationId(message.getConversationId())
+                .content(message.getContent())
+                .timestamp(message.getTimestamp())
+                .seq(message.getSeq())
+                .status(message.getStatus())
+                .attachmentCount(message.getAttachmentCount())
+                .build();
+    }
+
+    private static long estimateBytes(Message message) {
+        String content = message.getContent();
+        return MESSAGE_OVERHEAD_BYTES + (content == null ? 0 : 2L * content.length());
+    }
+
+    private static final class RingBuffer {
+        private final Message[] slots;
+        private int next;
+        private int size;
+        private long bytes;
+        private boolean complete;
+
+        RingBuffer(int capacity) {
+            this.slots = new Message[capacity];
+        }
+
+        // Returns the change in estimated bytes.
+        long add(Message message) {
+            long before = bytes;
+            Message overwritten = slots[next];
+            if (overwritten != null) {
+                bytes -= estimateBytes(overwritten);
+                complete = false;
+            } else {
+                size++;
+            }
+            slots[next] = message;
+            bytes += estimateBytes(message);
+            next = (next + 1) % slots.length;
+            return bytes - before;
+        }
+
+        boolean contains(Long messageId) {
+            for (Message message : slots) {
+                if (message != null && message.getId().equals(messageId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long remove(Long messageId) {
+            List<Message> kept = new ArrayList<>(size);
+            for (Message message : slots) {
+                if (message != null && !message.getId().equals(messageId)) {
+                    kept.add(message);
+                }
+            }
+            if (kept.size() == size) {
+                return 0;
+            }
+            kept.sort(NEWEST_FIRST.reversed());
+            long before = bytes;
+            Arrays.fill(slots, null);
+            next = 0;
+            size = 0;
+            bytes = 0;
+            boolean wasComplete = complete;
+            kept.forEach(this::add);
+            complete = wasComplete;
+            return before - bytes;
+        }
+
+        // Sends can finish slightly out of order, so sort rather than trust
+        // slot order.
+        List<Message> newestFirst() {
+            List<Message> messages = new ArrayList<>(size);
+            for (Message message : slots) {
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+            messages.sort(NEWEST_FIRST);
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.dto.ConversationMemberDTO;
+import com.networkpro.message_service.dto.ConversationMembersRequestDTO;
+import com.networkpro.message_service.dto.ConversationRequestDTO;
+import com.networkpro.message_service.dto.ConversationResponseDTO;
+import com.networkpro.message_service.dto.GroupReceiptRequestDTO;
+import com.networkpro.message_service.dto.ReceiptEventDTO;
+import com.networkpro.message_service.model.Conversation;
+import com.networkpro.message_service.model.ConversationMember;
+import com.networkpro.message_service.model.Message;
+import com.networkpro.message_service.repository.ConversationMemberRepository;
+import com.networkpro.message_service.repository.ConversationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Group conversations and their membership. Group messages themselves go
+ * through {@link MessageService}.
+ */
+@Service
+public class ConversationService {
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ConversationMemberRepository conversationMemberRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageSequencer messageSequencer;
+
+    @Autowired
+    private PushService pushService;
+
+    @Transactional
+    public ConversationResponseDTO createConversation(ConversationRequestDTO request) {
+        if (request.getCreatorId() == null) {
+            throw new IllegalArgumentException("creatorId is required");
+        }
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .name(request.getName())
+                .createdBy(request.getCreatorId())
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build());
+        Set<Long> userIds = new LinkedHashSet<>();
+        userIds.add(request.getCreatorId());
+        if (request.getMemberIds() != null) {
+            userIds.addAll(request.getMemberIds());
+        }
+        saveMembers(conversation.getId(), userIds, 0);
+        return toResponseDTO(conversation);
+    }
+
+    public List<ConversationResponseDTO> getConversations(Long userId) {
+        return conversationRepository.findByMember(userId).stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<ConversationMemberDTO> getMembers(Long conversationId) {
+        requireConversation(conversationId);
+        return conversationMemberRepository.findByConversationId(conversationId).stream()
+                .map(member -> new ConversationMemberDTO(member.getUserId(), member.getJoinedAt(),
+                        member.getDeliveredUpTo(), member.getReadUpTo()))
+                .collect(Collectors.toList());
+    }
+
+    // New members start with their watermarks at the newest committed message,
+    // so history from before they joined does not hold back the group's status.
+    @Transactional
+    public void addMembers(Long conversationId, ConversationMembersRequestDTO request) {
+        requireConversation(conversationId);
+        if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new LinkedHashSet<>(request.getUserIds());
+        userIds.removeAll(new HashSet<>(conversationMemberRepository.findUserIds(conversationId)));
+        saveMembers(conversationId, userIds,
+                messageSequencer.lastAssigned(ConversationCache.groupKey(conversationId)));
+    }
+
+    public void removeMember(Long conversationId, Long userId) {
+        if (conversationMemberRepository.deleteByConversationIdAndUserId(conversationId, userId) == 0) {
+            throw new RuntimeException("Member not found");
+        }
+    }
+
+    public void markRead(Long conversationId, GroupReceiptRequestDTO request) {
+        long upTo = seqInGroup(conversationId, request);
+        if (conversationMemberRepository.markRead(conversationId, request.getUserId(), upTo) == 0) {
+            throw notMember(conversationId, request.getUserId());
+        }
+        pushReceipt(conversationId, request, "READ", upTo);
+    }
+
+    public void markDelivered(Long conversationId, GroupReceiptRequestDTO request) {
+        long upTo = seqInGroup(conversationId, request);
+        if (conversationMemberRepository.markDelivered(conversationId, request.getUserId(), upTo) == 0) {
+            throw notMember(conversationId, request.getUserId());
+        }
+        pushReceipt(conversationId, request, "DELIVERED", upTo);
+    }
+
+    private long seqInGroup(Long conversationId, GroupReceiptRequestDTO request) {
+        Message message = messageService.requireMessage(request.getUpToMessageId());
+        if (!conversationId.equals(message.getConversationId())) {
+            throw new IllegalArgumentException("Message " + message.getId() + " is not part of conversation "
+                    + conversationId);
+        }
+        return message.getSeq();
+    }
+
+    // Offline members are skipped by the push channel; they pick the new
+    // watermarks up from the members endpoint.
+    private void pushReceipt(Long conversationId, GroupReceiptRequestDTO request, String status, long upTo) {
+        ReceiptEventDTO event = new ReceiptEventDTO(request.getUserId(), null, status,
+                request.getUpToMessageId(), conversationId, upTo);
+        pushService.pushAll(conversationMemberRepository.findUserIds(conversationId).stream()
+                .filter(memberId -> !memberId.equals(request.getUserId()))
+                .toList(), "receipt", event);
+    }
+
+    private void saveMembers(Long conversationId, Collection<Long> userIds, long upTo) {
+        LocalDateTime joinedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        conversationMemberRepository.saveAll(userIds.stream()
+                .map(userId -> ConversationMember.builder()
+                        .conversationId(conversationId)
+                        .userId(userId)
+                        .joinedAt(joinedAt)
+                        .deliveredUpTo(upTo)
+                        .readUpTo(upTo)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private void requireConversation(Long conversationId) {
+        if (!conversationRepository.existsById(conversationId)) {
+            throw new RuntimeException("Conversation not found");
+        }
+    }
+
+    private static IllegalArgumentException notMember(Long conversationId, Long userId) {
+        return new IllegalArgumentException("User " + userId + " is not a member of conversation " + conversationId);
+    }
+
+    private ConversationResponseDTO toResponseDTO(Conversation conversation) {
+        return new ConversationResponseDTO(conversation.getId(), conversation.getName(),
+                conversation.getCreatedBy(), conversation.getCreatedAt());
+    }
+}
@@ -0,0 +1,63 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.model.ConversationMember;
+import com.networkpro.message_service.model.Message;
+
+import java.util.List;
+
+/**
+ * Derives the status of group messages from the members' watermarks. A message
+ * is READ (or DELIVERED) once every member except its sender has reached it,
+ * which is the lowest watermark among the other members. Keeping the lowest
+ * and second-lowest marks answers that for any sender in constant time, so a
+ * page of messages costs one pass over the members.
+ */
+final class GroupWatermarks {
+    private final Lowest read = new Lowest();
+    private final Lowest delivered = new Lowest();
+
+    private GroupWatermarks() {
+    }
+
+    static GroupWatermarks of(List<ConversationMember> members) {
+        GroupWatermarks watermarks = new GroupWatermarks();
+        for (ConversationMember member : members) {
+            watermarks.read.offer(member.getUserId(), member.getReadUpTo());
+            watermarks.delivered.offer(member.getUserId(), member.getDeliveredUpTo());
+        }
+        return watermarks;
+    }
+
+    String statusOf(Message message) {
+        if (read.excluding(message.getSenderId()) >= message.getSeq()) {
+            return "READ";
+        }
+        if (delivered.excluding(message.getSenderId()) >= message.getSeq()) {
+            return "DELIVERED";
+        }
+        return message.getStatus();
+    }
+
+    private static final class Lowest {
+        private Long lowestUserId;
+        private long lowest = Long.MAX_VALUE;
+        private long secondLowest = Long.MAX_VALUE;
+
+        void offer(Long userId, long mark) {
+            if (mark < lowest) {
+                secondLowest = lowest;
+                lowest = mark;
+                lowestUserId = userId;
+            } else if (mark < secondLowest) {
+                secondLowest = mark;
+            }
+        }
+
+        // Zero when nobody but the sender is left, so such messages keep their
+        // stored status.
+        long excluding(Long userId) {
+            long mark = userId.equals(lowestUserId) ? secondLowest : lowest;
+            return mark == Long.MAX_VALUE ? 0 : mark;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.model.Message;
+import com.networkpro.message_service.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for the high-throughput send path. Callers enqueue
+ * messages into a bounded queue; a single writer thread drains up to
+ * {@code batch-size} of them (waiting at most {@code linger-ms} for a batch to
+ * fill) and persists them, with their attachment links, in one transaction as
+ * a JDBC batch. Each caller's future completes once the transaction holding
+ * its message has committed.
+ */
+@Component
+public class MessageBatchWriter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(MessageBatchWriter.class);
+
+    private final MessageRepository messageRepository;
+    private final MessageSequencer messageSequencer;
+    private final AttachmentService attachmentService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public MessageBatchWriter(MessageRepository messageRepository, MessageSequencer messageSequencer,
+            AttachmentService attachmentService, PlatformTransactionManager transactionManager,
+            @Value("${message.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${message.write-behind.batch-size:50}") int batchSize,
+            @Value("${message.write-behind.linger-ms:5}") long lingerMs) {
+        this.messageRepository = messageRepository;
+        this.messageSequencer = messageSequencer;
+        this.attachmentService = attachmentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+    }
+
+    public CompletableFuture<Message> enqueue(Message message, List<Long> attachmentIds) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Message writer is not running"));
+        }
+        PendingMessage pending = new PendingMessage(message, attachmentIds, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Message write queue is full"));
+        }
+        return pending.future();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "message-batch-writer");
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server, so queued sends are flushed
+    // once no new requests can arrive.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<PendingMessage> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        List<Message> messages = batch.stream().map(PendingMessage::message).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                messageSequencer.assign(messages);
+                messageRepository.saveAll(messages);
+                batch.forEach(this::linkAttachments);
+            });
+            batch.forEach(pending -> pending.future().complete(pending.message()));
+        } catch (RuntimeException ex) {
+            log.warn("Batch insert of {} messages failed, retrying individually", batch.size(), ex);
+            batch.forEach(this::flushSingle);
+        }
+    }
+
+    // Keeps one bad row from failing every other message in its batch.
+    private void flushSingle(PendingMessage pending) {
+        pending.message().setId(null);
+        try {
+            Message saved = transactionTemplate.execute(status -> {
+                messageSequencer.assign(List.of(pending.message()));
+                Message message = messageRepository.save(pending.message());
+                linkAttachments(pending);
+                return message;
+            });
+            pending.future().complete(saved);
+        } catch (RuntimeException ex) {
+            pending.future().completeExceptionally(ex);
+        }
+    }
+
+    private void linkAttachments(PendingMessage pending) {
+        attachmentService.link(pending.message().getId(), pending.message().getSenderId(), pending.attachmentIds());
+    }
+
+    private record PendingMessage(Message message, List<Long> attachmentIds, CompletableFuture<Message> future) {
+    }
+}
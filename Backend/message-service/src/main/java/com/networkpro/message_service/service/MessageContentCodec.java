@@ -0,0 +1,119 @@
+package com.networkpro.message_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes message bodies for storage. Every stored value starts with a codec
+ * tag byte, so rows written under an older codec or threshold stay readable:
+ *
+ * <pre>
+ *   0x00 | UTF-8 bytes                              (RAW)
+ *   0x01 | uncompressed length (int) | LZ4 block     (LZ4)
+ * </pre>
+ *
+ * Bodies below the threshold, or that LZ4 cannot shrink, are stored raw.
+ */
+@Component
+public class MessageContentCodec {
+    static final byte RAW = 0x00;
+    static final byte LZ4 = 0x01;
+
+    private static final int LZ4_HEADER_BYTES = 1 + Integer.BYTES;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+    private final int compressionThreshold;
+
+    private final Timer rawEncodeTimer;
+    private final Timer lz4EncodeTimer;
+    private final Timer rawDecodeTimer;
+    private final Timer lz4DecodeTimer;
+    private final Counter rawBytes;
+    private final Counter storedBytes;
+    private final DistributionSummary compressionRatio;
+
+    public MessageContentCodec(MeterRegistry meterRegistry,
+            @Value("${message.content.compression-threshold-bytes:512}") int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        this.rawEncodeTimer = meterRegistry.timer("message.content.encode", "codec", "raw");
+        this.lz4EncodeTimer = meterRegistry.timer("message.content.encode", "codec", "lz4");
+        this.rawDecodeTimer = meterRegistry.timer("message.content.decode", "codec", "raw");
+        this.lz4DecodeTimer = meterRegistry.timer("message.content.decode", "codec", "lz4");
+        this.rawBytes = meterRegistry.counter("message.content.raw.bytes");
+        this.storedBytes = meterRegistry.counter("message.content.stored.bytes");
+        this.compressionRatio = DistributionSummary.builder("message.content.compression.ratio")
+                .description("Stored size over raw size for compressed bodies")
+                .register(meterRegistry);
+    }
+
+    public byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = raw.length >= compressionThreshold ? compress(raw) : null;
+        Timer timer = lz4EncodeTimer;
+        if (stored == null) {
+            stored = new byte[raw.length + 1];
+            stored[0] = RAW;
+            System.arraycopy(raw, 0, stored, 1, raw.length);
+            timer = rawEncodeTimer;
+        } else {
+            compressionRatio.record((double) stored.length / raw.length);
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rawBytes.increment(raw.length);
+        storedBytes.increment(stored.length);
+        return stored;
+    }
+
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+        long start = System.nanoTime();
+        switch (stored[0]) {
+            case RAW -> {
+                String content = new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+                rawDecodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return content;
+            }
+            case LZ4 -> {
+                int rawLength = ByteBuffer.wrap(stored, 1, Integer.BYTES).getInt();
+                byte[] raw = new byte[rawLength];
+                decompressor.decompress(stored, LZ4_HEADER_BYTES, stored.length - LZ4_HEADER_BYTES, raw, 0);
+                String content = new String(raw, StandardCharsets.UTF_8);
+                lz4DecodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return content;
+            }
+            default -> throw new IllegalStateException("Unknown message content codec tag: " + stored[0]);
+        }
+    }
+
+    // Returns null when compression would not save space.
+    private byte[] compress(byte[] raw) {
+        byte[] stored = new byte[LZ4_HEADER_BYTES + compressor.maxCompressedLength(raw.length)];
+        stored[0] = LZ4;
+        ByteBuffer.wrap(stored, 1, Integer.BYTES).putInt(raw.length);
+        int compressedLength = compressor.compress(raw, 0, raw.length, stored, LZ4_HEADER_BYTES);
+        int total = LZ4_HEADER_BYTES + compressedLength;
+        return total < raw.length + 1 ? Arrays.copyOf(stored, total) : null;
+    }
+}
@@ -0,0 +1,281 @@
+package com.networkpro.message_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Owns the physical layout of the {@code message} table: monthly range
+ * partitions on {@code timestamp}, created ahead of time, a default partition
+ * for rows outside them, and archival of partitions older than
+ * {@code message.archive.after-months} into {@code message_archive}. Also sets up the change-feed sequence behind
+ * delta sync.
+ *
+ * Hibernate creates {@code message} as a plain table; on startup an empty
+ * plain table is swapped for a partitioned one with the same columns. A
+ * non-empty plain table is left alone and served unpartitioned.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MessagePartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(MessagePartitionManager.class);
+    private static final String PARTITION_PREFIX = "message_p";
+    private static final String DEFAULT_PARTITION = "message_default";
+    private static final String ARCHIVE_COLUMNS = "id, sender_id, receiver_id, conversation_id, content, "
+            + "\"timestamp\", seq, status, attachment_count";
+    // Changes the given snapshot could not see; the change_xid index finds them.
+    private static final String CHANGED_SINCE = "change_xid >= pg_snapshot_xmin(CAST(? AS pg_snapshot)) "
+            + "AND NOT pg_visible_in_snapshot(change_xid, CAST(? AS pg_snapshot))";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_message_sender_receiver ON message (sender_id, receiver_id, \"timestamp\")",
+            "CREATE INDEX IF NOT EXISTS idx_message_conversation ON message (conversation_id, \"timestamp\")",
+            // Search is scoped to one user's conversations: btree_gin lets
+            // each access key lead a GIN index on search_vector, and the
+            // (key, timestamp) indexes serve words too common for them. The
+            // receiver one also serves the inbox, which had its own index.
+            "CREATE EXTENSION IF NOT EXISTS btree_gin",
+            "DROP INDEX IF EXISTS idx_message_search_vector",
+            "DROP INDEX IF EXISTS idx_message_receiver",
+            "CREATE INDEX IF NOT EXISTS idx_message_sender_search ON message USING GIN (sender_id, search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_message_receiver_search ON message USING GIN (receiver_id, search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_message_conversation_search "
+                    + "ON message USING GIN (conversation_id, search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_message_sender_time ON message (sender_id, \"timestamp\")",
+            "CREATE INDEX IF NOT EXISTS idx_message_receiver_time ON message (receiver_id, \"timestamp\")",
+            "CREATE INDEX IF NOT EXISTS idx_message_sender_change ON message (sender_id, change_version)",
+            "CREATE INDEX IF NOT EXISTS idx_message_receiver_change ON message (receiver_id, change_version)",
+            "CREATE INDEX IF NOT EXISTS idx_message_conversation_change ON message (conversation_id, change_version)");
+
+    // One sequence orders every change delta sync reports: message inserts and
+    // tombstones, and receipt watermark moves. Versions are drawn when a row is
+    // written, not when it commits, so each change also records its writing
+    // transaction in change_xid; sync uses it to pick up changes that committed
+    // after a later version had already been handed out.
+    private static final List<String> CHANGE_FEED = List.of(
+            "CREATE SEQUENCE IF NOT EXISTS message_change_seq",
+            "ALTER TABLE message ALTER COLUMN change_version SET DEFAULT nextval('message_change_seq')",
+            "ALTER TABLE read_receipt ALTER COLUMN change_version SET DEFAULT nextval('message_change_seq')",
+            "ALTER TABLE message ADD COLUMN IF NOT EXISTS change_xid xid8 DEFAULT pg_current_xact_id()",
+            "ALTER TABLE read_receipt ADD COLUMN IF NOT EXISTS change_xid xid8 DEFAULT pg_current_xact_id()",
+            "CREATE INDEX IF NOT EXISTS idx_message_change_xid ON message (change_xid)",
+            "CREATE INDEX IF NOT EXISTS idx_read_receipt_user_change ON read_receipt (user_id, change_version)",
+            "CREATE INDEX IF NOT EXISTS idx_read_receipt_peer_change ON read_receipt (peer_id, change_version)",
+            "CREATE INDEX IF NOT EXISTS idx_read_receipt_change_xid ON read_receipt (change_xid)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    private volatile boolean partitioned;
+    // Start of the oldest attached partition, refreshed after maintenance.
+    private volatile LocalDateTime liveHorizon = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public MessagePartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${message.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${message.archive.after-months:6}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!isPartitionedTable()) {
+                convertToPartitioned();
+            }
+            INDEXES.forEach(jdbcTemplate::execute);
+            CHANGE_FEED.forEach(jdbcTemplate::execute);
+        });
+        useLz4ArchiveCompression();
+        partitioned = isPartitionedTable();
+        maintain();
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    // Start of the oldest month still held in live partitions; older messages
+    // are in message_archive. It only moves once a partition has actually been
+    // archived. Another instance may archive first, so this can lag behind
+    // and still cover a month that has gone to the archive, never the other
+    // way round.
+    public LocalDateTime liveHorizon() {
+        return liveHorizon;
+    }
+
+    @Scheduled(cron = "${message.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (tryMaintenanceLock()) {
+                createUpcomingPartitions();
+                archiveDefaultRows(cutoff);
+            }
+        });
+        for (String partition : listPartitions()) {
+            if (monthOf(partition).isBefore(cutoff)) {
+                archivePartition(partition);
+            }
+        }
+        refreshLiveHorizon();
+    }
+
+    private void refreshLiveHorizon() {
+        List<String> partitions = listPartitions();
+        YearMonth oldest = partitions.isEmpty() ? YearMonth.now() : monthOf(partitions.get(0));
+        liveHorizon = oldest.atDay(1).atStartOfDay();
+    }
+
+    // Servers built without lz4 keep the default pglz TOAST compression.
+    private void useLz4ArchiveCompression() {
+        Boolean lz4Available = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_settings "
+                + "WHERE name = 'default_toast_compression' AND 'lz4' = ANY (enumvals))", Boolean.class);
+        if (Boolean.TRUE.equals(lz4Available)) {
+            jdbcTemplate.execute("ALTER TABLE message_archive ALTER COLUMN content SET COMPRESSION lz4");
+        }
+    }
+
+    private void convertToPartitioned() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM message)", Boolean.class);
+        if (!Boolean.TRUE.equals(empty)) {
+            log.warn("Table message already holds rows and is not partitioned; leaving it unpartitioned");
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE message_partitioned (LIKE message INCLUDING DEFAULTS) "
+                + "PARTITION BY RANGE (\"timestamp\")");
+        jdbcTemplate.execute("DROP TABLE message");
+        jdbcTemplate.execute("ALTER TABLE message_partitioned RENAME TO message");
+        // The partition key has to be part of the primary key.
+        jdbcTemplate.execute("ALTER TABLE message ADD PRIMARY KEY (id, \"timestamp\")");
+        log.info("Converted table message to monthly range partitions");
+    }
+
+    private void createUpcomingPartitions() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF message DEFAULT");
+        List<String> existing = listPartitions();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+    }
+
+    // Postgres will not attach a range while the default partition holds rows
+    // in it, so those rows move into the new table first.
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String range = "\"timestamp\" >= '" + month.atDay(1) + "' AND \"timestamp\" < '"
+                + month.plusMonths(1).atDay(1) + "'";
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE message INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range
+                + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE message ATTACH PARTITION " + partition + " FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        if (moved > 0) {
+            log.info("Moved {} messages from {} into new partition {}", moved, DEFAULT_PARTITION, partition);
+        }
+    }
+
+    // Rows in the default partition older than any live month would never be
+    // read again, so they go to the archive like an expired partition.
+    private void archiveDefaultRows(YearMonth cutoff) {
+        int archived = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE \"timestamp\" < '" + cutoff.atDay(1) + "' RETURNING *) "
+                + "INSERT INTO message_archive (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS
+                + " FROM moved WHERE NOT deleted ON CONFLICT (id) DO NOTHING");
+        if (archived > 0) {
+            log.info("Archived {} messages from {}", archived, DEFAULT_PARTITION);
+        }
+    }
+
+    // The month is copied while the partition is still attached, so sends,
+    // reads and sync carry on during the long part. The detach, which locks
+    // message until commit, runs in a short second transaction. That
+    // transaction only re-copies rows changed since the copy's snapshot, such
+    // as a late delete, before it drops the partition. Until then a row may be
+    // in both places; history reads use a keyset cursor, so they never return it twice.
+    private void archivePartition(String partition) {
+        String snapshot = transactionTemplate.execute(status -> {
+            if (!tryMaintenanceLock()) {
+                return null;
+            }
+            String copiedUnder = jdbcTemplate.queryForObject("SELECT CAST(pg_current_snapshot() AS text)",
+                    String.class);
+            // Rows deleted after an earlier, interrupted copy.
+            jdbcTemplate.update("DELETE FROM message_archive a USING " + partition + " p "
+                    + "WHERE a.id = p.id AND p.deleted");
+            int copied = jdbcTemplate.update("INSERT INTO message_archive (" + ARCHIVE_COLUMNS + ") SELECT "
+                    + ARCHIVE_COLUMNS + " FROM " + partition + " WHERE NOT deleted ON CONFLICT (id) DO NOTHING");
+            log.info("Copied {} messages from partition {} to the archive", copied, partition);
+            return copiedUnder;
+        });
+        if (snapshot == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!tryMaintenanceLock() || !listPartitions().contains(partition)) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE message DETACH PARTITION " + partition);
+            jdbcTemplate.update("DELETE FROM message_archive WHERE id IN (SELECT id FROM " + partition
+                    + " WHERE " + CHANGED_SINCE + ")", snapshot, snapshot);
+            int recopied = jdbcTemplate.update("INSERT INTO message_archive (" + ARCHIVE_COLUMNS + ") SELECT "
+                    + ARCHIVE_COLUMNS + " FROM " + partition + " WHERE NOT deleted AND " + CHANGED_SINCE,
+                    snapshot, snapshot);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Archived partition {} ({} messages changed during the copy)", partition, recopied);
+        });
+    }
+
+    // Monthly partitions only, oldest first; the default partition is left out.
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'message' AND p.relnamespace = current_schema()::regnamespace "
+                + "AND c.relname LIKE ? ORDER BY c.relname", String.class, PARTITION_PREFIX + "%");
+    }
+
+    private boolean isPartitionedTable() {
+        Boolean result = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_class "
+                + "WHERE relname = 'message' AND relkind = 'p' "
+                + "AND relnamespace = current_schema()::regnamespace)", Boolean.class);
+        return Boolean.TRUE.equals(result);
+    }
+
+    // Keeps several instances from creating or archiving the same partitions at once.
+    private boolean tryMaintenanceLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('message_partition_maintenance'))", Boolean.class));
+    }
+
+    private static YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
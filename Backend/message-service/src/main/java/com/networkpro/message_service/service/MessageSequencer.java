@@ -0,0 +1,52 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.model.Message;
+import com.networkpro.message_service.repository.ConversationSequenceRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Numbers messages within their conversation. Message ids are allocated in
+ * pooled blocks and their transactions can commit in any order, so they say
+ * nothing about which message a reader saw first; {@link Message#getSeq()}
+ * does, and is what read and delivery watermarks are compared against.
+ */
+@Component
+public class MessageSequencer {
+    private final ConversationSequenceRepository conversationSequenceRepository;
+
+    public MessageSequencer(ConversationSequenceRepository conversationSequenceRepository) {
+        this.conversationSequenceRepository = conversationSequenceRepository;
+    }
+
+    public static String conversationKey(Message message) {
+        return message.getConversationId() != null
+                ? ConversationCache.groupKey(message.getConversationId())
+                : ConversationCache.directKey(message.getSenderId(), message.getReceiverId());
+    }
+
+    // Call from the transaction that inserts the messages, as late as possible:
+    // each conversation's counter stays locked until that transaction ends.
+    // Counters are taken in key order so concurrent batches cannot deadlock.
+    public void assign(List<Message> messages) {
+        Map<String, List<Message>> byConversation = new TreeMap<>();
+        for (Message message : messages) {
+            byConversation.computeIfAbsent(conversationKey(message), key -> new ArrayList<>()).add(message);
+        }
+        byConversation.forEach((key, inConversation) -> {
+            long last = conversationSequenceRepository.reserve(key, inConversation.size());
+            long next = last - inConversation.size();
+            for (Message message : inConversation) {
+                message.setSeq(++next);
+            }
+        });
+    }
+
+    public long lastAssigned(String conversationKey) {
+        return conversationSequenceRepository.findLastSeq(conversationKey);
+    }
+}
@@ -1,61 +1,607 @@
 package com.networkpro.message_service.service;
 
+import com.networkpro.message_service.dto.AttachmentDTO;
+import com.networkpro.message_service.dto.GroupMessageRequestDTO;
 import com.networkpro.message_service.dto.MessageRequestDTO;
 import com.networkpro.message_service.dto.MessageResponseDTO;
+import com.networkpro.message_service.dto.MessageSearchHitDTO;
+import com.networkpro.message_service.dto.MessageSearchResultDTO;
+import com.networkpro.message_service.dto.ReceiptEventDTO;
+import com.networkpro.message_service.dto.ReceiptRequestDTO;
+import com.networkpro.message_service.dto.ReceiptStateDTO;
+import com.networkpro.message_service.dto.SyncResponseDTO;
+import com.networkpro.message_service.model.ArchivedMessage;
+import com.networkpro.message_service.model.ConversationMember;
 import com.networkpro.message_service.model.Message;
+import com.networkpro.message_service.model.ReadReceipt;
+import com.networkpro.message_service.repository.ArchivedMessageRepository;
+import com.networkpro.message_service.repository.ConversationMemberRepository;
 import com.networkpro.message_service.repository.MessageRepository;
+import com.networkpro.message_service.repository.ReadReceiptRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class MessageService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Newest matches ranked per search branch, and per group within the
+    // groups' branch; see MessageRepository.search.
+    private static final int SEARCH_CANDIDATES = 1000;
+    private static final int SEARCH_CANDIDATES_PER_CONVERSATION = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_SYNC_BATCH_SIZE = 1000;
+    private static final String LEGACY_SYNC_TOKEN_PREFIX = "v1:";
+    private static final String SYNC_TOKEN_PREFIX = "v2:";
+    // pg_snapshot text: xmin:xmax:xip,...
+    private static final Pattern SNAPSHOT_PATTERN = Pattern.compile("\\d+:\\d+:[\\d,]*");
+
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private ReadReceiptRepository readReceiptRepository;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private ArchivedMessageRepository archivedMessageRepository;
+
+    @Autowired
+    private MessagePartitionManager messagePartitionManager;
+
+    @Autowired
+    private ConversationCache conversationCache;
+
+    @Autowired
+    private ConversationMemberRepository conversationMemberRepository;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private MessageSequencer messageSequencer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public MessageResponseDTO sendMessage(MessageRequestDTO request) {
-        Message message = Message.builder()
-                .senderId(request.getSenderId())
-                .receiverId(request.getReceiverId())
-                .content(request.getContent())
-                .timestamp(LocalDateTime.now())
-                .status("SENT")
-                .build();
-        Message saved = messageRepository.save(message);
-        return toResponseDTO(saved);
+        attachmentService.requireLinkable(request.getSenderId(), request.getAttachmentIds());
+        Message saved = store(newMessage(request), request.getAttachmentIds());
+        cacheSent(saved);
+        return withAttachments(saved, toResponseDTO(saved));
+    }
+
+    // Group-committed variant of sendMessage; completes once the batch holding
+    // the message is durable. The follow-up runs off the writer thread, which
+    // would otherwise wait on it before starting the next batch.
+    public CompletableFuture<MessageResponseDTO> sendMessageBatched(MessageRequestDTO request) {
+        attachmentService.requireLinkable(request.getSenderId(), request.getAttachmentIds());
+        return messageBatchWriter.enqueue(newMessage(request), request.getAttachmentIds()).thenApplyAsync(saved -> {
+            cacheSent(saved);
+            return withAttachments(saved, toResponseDTO(saved));
+        });
+    }
+
+    // Stores one copy of the message however large the group is and returns
+    // once it is committed; the push to the members that are online goes out
+    // in the background.
+    public MessageResponseDTO sendGroupMessage(Long conversationId, GroupMessageRequestDTO request) {
+        List<Long> memberIds = conversationMemberRepository.findUserIds(conversationId);
+        if (!memberIds.contains(request.getSenderId())) {
+            throw notMember(conversationId, request.getSenderId());
+        }
+        attachmentService.requireLinkable(request.getSenderId(), request.getAttachmentIds());
+        Message saved = store(newMessage(request.getSenderId(), null, conversationId,
+                request.getContent(), request.getAttachmentIds()), request.getAttachmentIds());
+        cacheSent(saved);
+        MessageResponseDTO response = withAttachments(saved, toResponseDTO(saved));
+        pushService.pushAll(memberIds.stream()
+                .filter(memberId -> !memberId.equals(saved.getSenderId()))
+                .toList(), "message", response);
+        return response;
     }
 
     public MessageResponseDTO getMessageById(Long id) {
-        Message message = messageRepository.findById(id).orElseThrow(() -> new RuntimeException("Message not found"));
-        return toResponseDTO(message);
+        Message message = messageRepository.findById(id)
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new RuntimeException("Message not found"));
+        if (message.getConversationId() != null) {
+            GroupWatermarks watermarks = GroupWatermarks.of(
+                    conversationMemberRepository.findByConversationId(message.getConversationId()));
+            return withAttachments(message, toResponseDTO(message, watermarks.statusOf(message)));
+        }
+        ReadReceipt receipt = readReceiptRepository
+                .findByUserIdAndPeerId(message.getReceiverId(), message.getSenderId())
+                .orElse(null);
+        return withAttachments(message, toResponseDTO(message, receipt));
     }
 
     public List<MessageResponseDTO> getConversation(Long user1, Long user2) {
-        List<Message> messages = messageRepository.findBySenderIdAndReceiverIdOrSenderIdAndReceiverId(
-                user1, user2, user2, user1);
-        return messages.stream().map(this::toResponseDTO).collect(Collectors.toList());
+        List<Message> messages = messageRepository
+                .findBySenderIdAndReceiverIdAndDeletedFalseOrSenderIdAndReceiverIdAndDeletedFalse(
+                        user1, user2, user2, user1);
+        Map<Long, ReadReceipt> receiptsByReader = readReceiptRepository
+                .findByUserIdAndPeerIdOrUserIdAndPeerId(user1, user2, user2, user1).stream()
+                .collect(Collectors.toMap(ReadReceipt::getUserId, receipt -> receipt));
+        return withAttachments(messages, messages.stream()
+                .map(message -> toResponseDTO(message, receiptsByReader.get(message.getReceiverId())))
+                .collect(Collectors.toList()));
+    }
+
+    // Newest-first page of a conversation older than the (before, beforeId)
+    // keyset position, normally the oldest message of the previous page.
+    // Without beforeId every message at `before` is skipped. The first page
+    // (no `before`) is served from the conversation cache when it can be.
+    public List<MessageResponseDTO> getConversationHistory(Long user1, Long user2, LocalDateTime before,
+            Long beforeId, int limit) {
+        List<Message> messages = loadHistory(ConversationCache.directKey(user1, user2), before, beforeId, limit,
+                (from, to, toId, page) -> messageRepository.findConversationBetween(user1, user2, from, to, toId,
+                        page),
+                (archivedBefore, archivedBeforeId, page) -> archivedMessageRepository.findConversationBefore(
+                        user1, user2, archivedBefore, archivedBeforeId, page));
+        Map<Long, ReadReceipt> receiptsByReader = readReceiptRepository
+                .findByUserIdAndPeerIdOrUserIdAndPeerId(user1, user2, user2, user1).stream()
+                .collect(Collectors.toMap(ReadReceipt::getUserId, receipt -> receipt));
+        return withAttachments(messages, messages.stream()
+                .map(message -> toResponseDTO(message, receiptsByReader.get(message.getReceiverId())))
+                .collect(Collectors.toList()));
+    }
+
+    // Same paging as getConversationHistory, for a group the user belongs to.
+    public List<MessageResponseDTO> getGroupHistory(Long conversationId, Long userId, LocalDateTime before,
+            Long beforeId, int limit) {
+        List<ConversationMember> members = conversationMemberRepository.findByConversationId(conversationId);
+        if (members.stream().noneMatch(member -> member.getUserId().equals(userId))) {
+            throw notMember(conversationId, userId);
+        }
+        List<Message> messages = loadHistory(ConversationCache.groupKey(conversationId), before, beforeId, limit,
+                (from, to, toId, page) -> messageRepository.findGroupBetween(conversationId, from, to, toId, page),
+                (archivedBefore, archivedBeforeId, page) -> archivedMessageRepository.findGroupBefore(
+                        conversationId, archivedBefore, archivedBeforeId, page));
+        GroupWatermarks watermarks = GroupWatermarks.of(members);
+        return withAttachments(messages, messages.stream()
+                .map(message -> toResponseDTO(message, watermarks.statusOf(message)))
+                .collect(Collectors.toList()));
+    }
+
+    // The first page (no `before`) is served from the conversation cache when
+    // it can be; a miss loads a whole buffer's worth.
+    private List<Message> loadHistory(String cacheKey, LocalDateTime before, Long beforeId, int limit,
+            LiveQuery live, ArchiveQuery archive) {
+        limit = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        if (before != null) {
+            return loadPage(before, beforeId == null ? Long.MIN_VALUE : beforeId, limit, live, archive);
+        }
+        List<Message> messages = conversationCache.firstPage(cacheKey, limit);
+        if (messages == null) {
+            int fetch = Math.max(limit, conversationCache.capacity());
+            messages = loadPage(LocalDateTime.now().plusSeconds(1), Long.MIN_VALUE, fetch, live, archive);
+            conversationCache.fill(cacheKey, messages, messages.size() < fetch);
+            messages = messages.size() > limit ? messages.subList(0, limit) : messages;
+        }
+        return messages;
+    }
+
+    // Walks back one monthly partition per query, so recent pages never touch
+    // old partitions, and reads through to the archive once past the live
+    // horizon. Pages are cut at a (timestamp, id) keyset position, since a
+    // batch commits many messages with the same timestamp. The archive is read
+    // from the oldest message found rather than from the horizon: a month
+    // archived after the horizon was read comes up empty in the live table
+    // and is then found in the archive.
+    private List<Message> loadPage(LocalDateTime before, long beforeId, int limit, LiveQuery live,
+            ArchiveQuery archive) {
+        LocalDateTime horizon = messagePartitionManager.liveHorizon();
+        List<Message> messages = new ArrayList<>();
+        LocalDateTime windowEnd = before;
+        long windowEndId = beforeId;
+        while (messages.size() < limit && windowEnd.isAfter(horizon)) {
+            LocalDateTime windowStart = horizon;
+            if (messagePartitionManager.isPartitioned()) {
+                LocalDateTime monthStart = YearMonth.from(windowEnd.minusNanos(1)).atDay(1).atStartOfDay();
+                windowStart = monthStart.isAfter(horizon) ? monthStart : horizon;
+            }
+            messages.addAll(live.find(windowStart, windowEnd, windowEndId,
+                    PageRequest.of(0, limit - messages.size())));
+            windowEnd = windowStart;
+            windowEndId = Long.MIN_VALUE;
+        }
+        if (messages.size() < limit) {
+            Message oldest = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+            archive.find(oldest == null ? before : oldest.getTimestamp(), oldest == null ? beforeId : oldest.getId(),
+                    PageRequest.of(0, limit - messages.size()))
+                    .forEach(archived -> messages.add(toMessage(archived)));
+        }
+        return messages;
     }
 
     public List<MessageResponseDTO> getInbox(Long userId) {
-        List<Message> messages = messageRepository.findByReceiverId(userId);
-        return messages.stream().map(this::toResponseDTO).collect(Collectors.toList());
+        List<Message> messages = messageRepository.findByReceiverIdAndDeletedFalse(userId);
+        Map<Long, ReadReceipt> receiptsByPeer = readReceiptRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(ReadReceipt::getPeerId, receipt -> receipt));
+        return withAttachments(messages, messages.stream()
+                .map(message -> toResponseDTO(message, receiptsByPeer.get(message.getSenderId())))
+                .collect(Collectors.toList()));
+    }
+
+    // Ranks only the newest matches of each conversation kind, so a very
+    // common word finds recent messages rather than the best of all time.
+    // Messages in archived months are not searched.
+    @Transactional(readOnly = true)
+    public MessageSearchResultDTO searchMessages(Long userId, String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        size = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        SearchPosition position = cursor == null || cursor.isBlank()
+                ? SearchPosition.first(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                : SearchPosition.decode(cursor);
+        // Fetch one extra row to learn whether another page exists without a
+        // count query. The best plan depends on how common the words are, which
+        // a generic plan for the prepared statement cannot know.
+        messageRepository.useCustomPlans();
+        List<MessageRepository.SearchHit> found = messageRepository.search(userId, query, position.asOf(),
+                position.rank(), position.id(), SEARCH_CANDIDATES, SEARCH_CANDIDATES_PER_CONVERSATION, size + 1);
+        boolean hasMore = found.size() > size;
+        if (hasMore) {
+            found = found.subList(0, size);
+        }
+        Map<Long, Message> byId = messageRepository.findAllById(found.stream()
+                        .map(MessageRepository.SearchHit::getId).toList()).stream()
+                .collect(Collectors.toMap(Message::getId, Function.identity()));
+        List<Message> messages = found.stream()
+                .map(hit -> byId.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Function<Message, String> statuses = statusesFor(userId, messages);
+        List<MessageSearchHitDTO> hits = messages.stream()
+                .map(message -> new MessageSearchHitDTO(toResponseDTO(message, statuses.apply(message)),
+                        SnippetHighlighter.highlight(message.getContent(), query)))
+                .collect(Collectors.toList());
+        withAttachments(messages, hits.stream().map(MessageSearchHitDTO::getMessage).collect(Collectors.toList()));
+        String nextCursor = null;
+        if (hasMore) {
+            MessageRepository.SearchHit last = found.get(found.size() - 1);
+            nextCursor = new SearchPosition(position.asOf(), last.getRank(), last.getId()).encode();
+        }
+        return new MessageSearchResultDTO(hits, nextCursor, hasMore);
+    }
+
+    // Marks everything peerId sent to userId up to the given message as read
+    // with a single upsert, then tells the sender.
+    public void markRead(ReceiptRequestDTO request) {
+        long upTo = seqInDirectConversation(request);
+        readReceiptRepository.markRead(request.getUserId(), request.getPeerId(), upTo);
+        pushService.push(request.getPeerId(), "receipt", new ReceiptEventDTO(
+                request.getUserId(), request.getPeerId(), "READ", request.getUpToMessageId(), null, upTo));
+    }
+
+    public void markDelivered(ReceiptRequestDTO request) {
+        long upTo = seqInDirectConversation(request);
+        readReceiptRepository.markDelivered(request.getUserId(), request.getPeerId(), upTo);
+        pushService.push(request.getPeerId(), "receipt", new ReceiptEventDTO(
+                request.getUserId(), request.getPeerId(), "DELIVERED", request.getUpToMessageId(), null, upTo));
+    }
+
+    // Clients name the last message they have seen; watermarks hold its seq.
+    private long seqInDirectConversation(ReceiptRequestDTO request) {
+        Message message = requireMessage(request.getUpToMessageId());
+        boolean between = message.getConversationId() == null
+                && ((message.getSenderId().equals(request.getPeerId())
+                        && message.getReceiverId().equals(request.getUserId()))
+                        || (message.getSenderId().equals(request.getUserId())
+                                && message.getReceiverId().equals(request.getPeerId())));
+        if (!between) {
+            throw new IllegalArgumentException("Message " + message.getId() + " is not between users "
+                    + request.getUserId() + " and " + request.getPeerId());
+        }
+        return message.getSeq();
+    }
+
+    // Tombstones still count: a watermark can point at a message deleted since.
+    public Message requireMessage(Long messageId) {
+        if (messageId == null) {
+            throw new IllegalArgumentException("upToMessageId is required");
+        }
+        return messageRepository.findById(messageId)
+                .orElseThrow(() -> new RuntimeException("Message not found"));
+    }
+
+    // Changes visible to userId since the position encoded in the token: new
+    // messages, receipt watermark moves and deletions, oldest first. The
+    // returned token resumes after the last change included.
+    //
+    // A change version is drawn before its transaction commits, so a change can
+    // become visible after a higher version was already synced. The token
+    // therefore also carries the snapshot the batch was read under, and the
+    // next sync adds every lower-versioned change that snapshot could not see.
+    // Both queries run in one repeatable-read snapshot. A change may be sent
+    // twice across syncs, but never skipped.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponseDTO sync(Long userId, String token, int limit) {
+        limit = Math.max(1, Math.min(limit, MAX_SYNC_BATCH_SIZE));
+        String snapshot = messageRepository.currentSnapshot();
+        SyncPosition since = decodeSyncToken(token);
+        // Older tokens carry no snapshot; checking against the current one makes
+        // the late-change branch match nothing, so they resume by version alone.
+        String sinceSnapshot = since.snapshot() != null ? since.snapshot() : snapshot;
+        List<Message> messages = messageRepository.findChangedSince(userId, since.version(), sinceSnapshot,
+                limit + 1);
+        List<ReadReceipt> receiptChanges = readReceiptRepository.findChangedSince(userId, since.version(),
+                sinceSnapshot, limit + 1);
+
+        // Both lists are sorted by version; keep the `limit` oldest changes overall.
+        List<Long> versions = new ArrayList<>();
+        messages.forEach(message -> versions.add(message.getChangeVersion()));
+        receiptChanges.forEach(receipt -> versions.add(receipt.getChangeVersion()));
+        versions.sort(Comparator.naturalOrder());
+        boolean hasMore = versions.size() > limit;
+        long upTo = versions.isEmpty() ? since.version() : versions.get(Math.min(limit, versions.size()) - 1);
+
+        Function<Message, String> statuses = statusesFor(userId, messages);
+        SyncResponseDTO response = new SyncResponseDTO();
+        response.setMessages(new ArrayList<>());
+        response.setDeletedMessageIds(new ArrayList<>());
+        for (Message message : messages) {
+            if (message.getChangeVersion() > upTo) {
+                break;
+            }
+            if (message.isDeleted()) {
+                response.getDeletedMessageIds().add(message.getId());
+            } else {
+                response.getMessages().add(toResponseDTO(message, statuses.apply(message)));
+            }
+        }
+        withAttachments(messages, response.getMessages());
+        response.setReceipts(receiptChanges.stream()
+                .filter(receipt -> receipt.getChangeVersion() <= upTo)
+                .map(receipt -> new ReceiptStateDTO(receipt.getUserId(), receipt.getPeerId(),
+                        receipt.getDeliveredUpTo(), receipt.getReadUpTo()))
+                .collect(Collectors.toList()));
+        // A cut-off batch resumes right after its last change; late changes below
+        // that were all included, since the batch is ordered by version.
+        response.setNextToken(encodeSyncToken(
+                new SyncPosition(hasMore ? upTo : Math.max(upTo, since.version()), snapshot)));
+        response.setHasMore(hasMore);
+        return response;
     }
 
     public void deleteMessage(Long id) {
-        messageRepository.deleteById(id);
+        Message message = messageRepository.findById(id).orElse(null);
+        attachmentService.deleteForMessage(id);
+        if (message == null || messageRepository.markDeleted(id) == 0) {
+            archivedMessageRepository.deleteById(id);
+            return;
+        }
+        conversationCache.remove(MessageSequencer.conversationKey(message), id);
+    }
+
+    private Message newMessage(MessageRequestDTO request) {
+        return newMessage(request.getSenderId(), request.getReceiverId(), null, request.getContent(),
+                request.getAttachmentIds());
+    }
+
+    private Message newMessage(Long senderId, Long receiverId, Long conversationId, String content,
+            List<Long> attachmentIds) {
+        return Message.builder()
+                .senderId(senderId)
+                .receiverId(receiverId)
+                .conversationId(conversationId)
+                .content(content)
+                .searchText(content)
+                // Postgres keeps microseconds; truncating here keeps cached and
+                // stored copies identical.
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .status("SENT")
+                .attachmentCount(attachmentIds == null ? 0 : (int) attachmentIds.stream().distinct().count())
+                .build();
+    }
+
+    // Numbers the message, inserts it and links its attachments in one
+    // transaction, so it commits in seq order with the other sends of its
+    // conversation and never without its attachments.
+    private Message store(Message message, List<Long> attachmentIds) {
+        return transactionTemplate.execute(status -> {
+            messageSequencer.assign(List.of(message));
+            Message saved = messageRepository.save(message);
+            attachmentService.link(saved.getId(), saved.getSenderId(), attachmentIds);
+            return saved;
+        });
+    }
+
+    private MessageResponseDTO withAttachments(Message message, MessageResponseDTO response) {
+        withAttachments(List.of(message), List.of(response));
+        return response;
+    }
+
+    // Fills in attachments with one query, skipping it when no message in the
+    // list has any.
+    private List<MessageResponseDTO> withAttachments(List<Message> messages, List<MessageResponseDTO> responses) {
+        List<Long> messageIds = messages.stream()
+                .filter(message -> message.getAttachmentCount() > 0)
+                .map(Message::getId)
+                .collect(Collectors.toList());
+        if (!messageIds.isEmpty()) {
+            Map<Long, List<AttachmentDTO>> attachments = attachmentService.findByMessageIds(messageIds);
+            responses.forEach(response -> response.setAttachments(
+                    attachments.getOrDefault(response.getId(), List.of())));
+        }
+        return responses;
+    }
+
+    private void cacheSent(Message message) {
+        conversationCache.append(MessageSequencer.conversationKey(message), message);
+    }
+
+    private static IllegalArgumentException notMember(Long conversationId, Long userId) {
+        return new IllegalArgumentException("User " + userId + " is not a member of conversation " + conversationId);
+    }
+
+    // Status lookup for a mix of direct and group messages visible to userId,
+    // loading each group's watermarks once.
+    private Function<Message, String> statusesFor(Long userId, List<Message> messages) {
+        Map<List<Long>, ReadReceipt> receipts = receiptsInvolving(userId);
+        Set<Long> conversationIds = messages.stream()
+                .map(Message::getConversationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, GroupWatermarks> groups = conversationIds.isEmpty() ? Map.of()
+                : conversationMemberRepository.findByConversationIdIn(conversationIds).stream()
+                        .collect(Collectors.groupingBy(ConversationMember::getConversationId,
+                                Collectors.collectingAndThen(Collectors.toList(), GroupWatermarks::of)));
+        return message -> message.getConversationId() != null
+                ? groups.getOrDefault(message.getConversationId(), GroupWatermarks.of(List.of())).statusOf(message)
+                : deriveStatus(message, receipts.get(List.of(message.getReceiverId(), message.getSenderId())));
+    }
+
+    // Receipts keyed by (reader, sender) for every conversation userId is in.
+    private Map<List<Long>, ReadReceipt> receiptsInvolving(Long userId) {
+        return readReceiptRepository.findByUserIdOrPeerId(userId, userId).stream()
+                .collect(Collectors.toMap(receipt -> List.of(receipt.getUserId(), receipt.getPeerId()),
+                        receipt -> receipt));
+    }
+
+    private static SyncPosition decodeSyncToken(String token) {
+        if (token == null || token.isBlank()) {
+            return new SyncPosition(0, null);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.startsWith(LEGACY_SYNC_TOKEN_PREFIX)) {
+                return new SyncPosition(Long.parseLong(decoded.substring(LEGACY_SYNC_TOKEN_PREFIX.length())), null);
+            }
+            if (!decoded.startsWith(SYNC_TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            String[] parts = decoded.substring(SYNC_TOKEN_PREFIX.length()).split(":", 2);
+            if (parts.length != 2 || !SNAPSHOT_PATTERN.matcher(parts[1]).matches()) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncPosition(Long.parseLong(parts[0]), parts[1]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid sync token", ex);
+        }
+    }
+
+    private static String encodeSyncToken(SyncPosition position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (SYNC_TOKEN_PREFIX + position.version() + ":" + position.snapshot()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Message toMessage(ArchivedMessage archived) {
+        return Message.builder()
+                .id(archived.getId())
+                .senderId(archived.getSenderId())
+                .receiverId(archived.getReceiverId())
+                .conversationId(archived.getConversationId())
+                .content(archived.getContent())
+                .timestamp(archived.getTimestamp())
+                .seq(archived.getSeq())
+                .status(archived.getStatus())
+                .attachmentCount(archived.getAttachmentCount())
+                .build();
     }
 
     private MessageResponseDTO toResponseDTO(Message message) {
+        return toResponseDTO(message, message.getStatus());
+    }
+
+    private MessageResponseDTO toResponseDTO(Message message, ReadReceipt receipt) {
+        return toResponseDTO(message, deriveStatus(message, receipt));
+    }
+
+    private MessageResponseDTO toResponseDTO(Message message, String status) {
         MessageResponseDTO dto = new MessageResponseDTO();
         dto.setId(message.getId());
         dto.setSenderId(message.getSenderId());
         dto.setReceiverId(message.getReceiverId());
+        dto.setConversationId(message.getConversationId());
         dto.setContent(message.getContent());
         dto.setTimestamp(message.getTimestamp());
-        dto.setStatus(message.getStatus());
+        dto.setSeq(message.getSeq());
+        dto.setStatus(status);
+        dto.setAttachments(List.of());
         return dto;
     }
-}
\ No newline at end of file
+
+    // The stored status stays SENT; delivery and read state come from the
+    // receiver's watermarks.
+    private String deriveStatus(Message message, ReadReceipt receipt) {
+        if (receipt == null) {
+            return message.getStatus();
+        }
+        if (receipt.getReadUpTo() >= message.getSeq()) {
+            return "READ";
+        }
+        if (receipt.getDeliveredUpTo() >= message.getSeq()) {
+            return "DELIVERED";
+        }
+        return message.getStatus();
+    }
+
+    // One bounded query for a page window against the live table.
+    @FunctionalInterface
+    private interface LiveQuery {
+        List<Message> find(LocalDateTime from, LocalDateTime to, long toId, Pageable pageable);
+    }
+
+    @FunctionalInterface
+    private interface ArchiveQuery {
+        List<ArchivedMessage> find(LocalDateTime before, long beforeId, Pageable pageable);
+    }
+
+    // Search-after position: when the search started, plus the rank and id of
+    // the last hit, as base64url of "<asOf>|<rank>|<id>".
+    private record SearchPosition(LocalDateTime asOf, double rank, long id) {
+        static SearchPosition first(LocalDateTime asOf) {
+            return new SearchPosition(asOf, Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((asOf + "|" + rank + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchPosition decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|");
+                return new SearchPosition(LocalDateTime.parse(parts[0]), Double.parseDouble(parts[1]),
+                        Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid search cursor", ex);
+            }
+        }
+    }
+
+    // Highest change version synced, and the snapshot it was read under; null
+    // for tokens that predate snapshots.
+    private record SyncPosition(long version, String snapshot) {
+    }
+}
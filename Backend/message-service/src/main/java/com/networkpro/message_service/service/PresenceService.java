@@ -0,0 +1,172 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.dto.PresenceDTO;
+import com.networkpro.message_service.dto.TypingEventDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ephemeral online state, kept in memory only and never persisted. Users are
+ * spread over shards, each holding a map of user to heartbeat expiry and a
+ * hashed timer wheel with one slot per tick.
+ *
+ * A heartbeat is a single map write; only a user coming online is added to a
+ * wheel slot. When a slot comes due, its users are either expired or, if they
+ * heartbeated since, moved to the slot of their new expiry, so each online
+ * user sits in exactly one slot.
+ */
+@Service
+public class PresenceService {
+    private static final int MAX_QUERY_USERS = 1000;
+
+    private final Shard[] shards;
+    private final long ttlMs;
+    private final long tickMs;
+    private final int wheelSize;
+    private final PushService pushService;
+
+    // Only touched by the scheduler thread.
+    private long lastSweptTick;
+
+    public PresenceService(PushService pushService, MeterRegistry meterRegistry,
+            @Value("${message.presence.shards:16}") int shardCount,
+            @Value("${message.presence.ttl-ms:30000}") long ttlMs,
+            @Value("${message.presence.tick-ms:1000}") long tickMs) {
+        this.pushService = pushService;
+        this.ttlMs = ttlMs;
+        this.tickMs = tickMs;
+        // An expiry is at most ttl/tick ticks ahead; the extra slots keep a
+        // rescheduled user out of the slot being swept.
+        this.wheelSize = (int) (ttlMs / tickMs) + 2;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(wheelSize);
+        }
+        this.lastSweptTick = System.currentTimeMillis() / tickMs;
+        Gauge.builder("message.presence.online", this, PresenceService::onlineCount).register(meterRegistry);
+    }
+
+    public void heartbeat(Long userId) {
+        Shard shard = shardFor(userId);
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        if (shard.expiries.put(userId, expiresAt) == null) {
+            shard.schedule(userId, slotFor(expiresAt));
+        }
+    }
+
+    public void goOffline(Long userId) {
+        // The wheel entry is dropped when its slot comes due.
+        shardFor(userId).expiries.remove(userId);
+    }
+
+    public List<PresenceDTO> getPresence(List<Long> userIds) {
+        if (userIds.size() > MAX_QUERY_USERS) {
+            throw new IllegalArgumentException("At most " + MAX_QUERY_USERS + " users per presence query");
+        }
+        long now = System.currentTimeMillis();
+        return userIds.stream()
+                .map(userId -> {
+                    Long expiresAt = shardFor(userId).expiries.get(userId);
+                    boolean online = expiresAt != null && expiresAt > now;
+                    return new PresenceDTO(userId, online, online ? toDateTime(expiresAt - ttlMs) : null);
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Relayed straight to the peer's push streams; typing also counts as a
+    // heartbeat.
+    public void typing(TypingEventDTO event) {
+        if (event.getUserId() == null || event.getPeerId() == null) {
+            throw new IllegalArgumentException("userId and peerId are required");
+        }
+        heartbeat(event.getUserId());
+        pushService.push(event.getPeerId(), "typing", event);
+    }
+
+    @Scheduled(fixedRateString = "${message.presence.tick-ms:1000}")
+    public void advance() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMs;
+        // After a long pause one full turn of the wheel covers every slot.
+        long from = Math.max(lastSweptTick + 1, currentTick - wheelSize + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            int slot = (int) (tick % wheelSize);
+            for (Shard shard : shards) {
+                sweep(shard, slot, now);
+            }
+        }
+        lastSweptTick = currentTick;
+    }
+
+    public long onlineCount() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.expiries.size();
+        }
+        return count;
+    }
+
+    private void sweep(Shard shard, int slot, long now) {
+        Iterator<Long> users = shard.wheel[slot].iterator();
+        while (users.hasNext()) {
+            Long userId = users.next();
+            users.remove();
+            Long expiresAt = shard.expiries.get(userId);
+            if (expiresAt == null) {
+                continue;
+            }
+            // A conditional remove loses to a concurrent heartbeat, which then
+            // gets rescheduled below.
+            if (expiresAt > now || !shard.expiries.remove(userId, expiresAt)) {
+                Long current = shard.expiries.get(userId);
+                if (current != null) {
+                    shard.schedule(userId, slotFor(current));
+                }
+            }
+        }
+    }
+
+    // The first tick at or after the expiry, so a due slot only holds users
+    // whose expiry has passed unless they heartbeated since.
+    private int slotFor(long expiresAt) {
+        return (int) ((expiresAt / tickMs + 1) % wheelSize);
+    }
+
+    private Shard shardFor(Long userId) {
+        int hash = Long.hashCode(userId);
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<Long, Long> expiries = new ConcurrentHashMap<>();
+        private final Set<Long>[] wheel;
+
+        @SuppressWarnings("unchecked")
+        Shard(int wheelSize) {
+            wheel = new Set[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = ConcurrentHashMap.newKeySet();
+            }
+        }
+
+        void schedule(Long userId, int slot) {
+            wheel[slot].add(userId);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.networkpro.message_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent-event channel to connected clients. A user may hold several
+ * streams (one per device); events for users without a stream are dropped.
+ *
+ * Group events go out through {@link #pushAll} on a fixed pool of
+ * {@code message.push.fanout-workers} threads behind a queue of
+ * {@code message.push.fanout-queue-size}, so the request that caused them
+ * does not wait on up to a group's worth of sends. When the queue is full the
+ * event is dropped, like one for an offline member; clients catch up from
+ * history or sync. message.push.fanout.rejected counts dropped events.
+ */
+@Service
+public class PushService {
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final ThreadPoolExecutor fanout;
+    private final Counter rejected;
+
+    public PushService(MeterRegistry meterRegistry,
+            @Value("${message.push.timeout-ms:1800000}") long timeoutMs,
+            @Value("${message.push.fanout-workers:2}") int fanoutWorkers,
+            @Value("${message.push.fanout-queue-size:10000}") int fanoutQueueSize) {
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.fanout = new ThreadPoolExecutor(fanoutWorkers, fanoutWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanoutQueueSize), task -> {
+                    Thread thread = new Thread(task, "push-fanout-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = meterRegistry.counter("message.push.fanout.rejected");
+        Gauge.builder("message.push.fanout.queued", fanout, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(ex -> remove(userId, emitter));
+        return emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    public void push(Long userId, String eventName, Object payload) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload));
+            } catch (IOException | IllegalStateException ex) {
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    // Never blocks the caller; call it once the event's data is committed.
+    public void pushAll(Collection<Long> userIds, String eventName, Object payload) {
+        List<Long> connected = userIds.stream().filter(emitters::containsKey).toList();
+        if (connected.isEmpty()) {
+            return;
+        }
+        try {
+            fanout.execute(() -> connected.forEach(userId -> push(userId, eventName, payload)));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdownNow();
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
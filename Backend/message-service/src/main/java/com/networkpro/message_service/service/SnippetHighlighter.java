@@ -0,0 +1,75 @@
+package com.networkpro.message_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a short, HTML-escaped excerpt of a search hit with the query terms
+ * wrapped in {@code <mark>}. Done in Java rather than with ts_headline so it
+ * works on the decoded content the entity already holds.
+ */
+final class SnippetHighlighter {
+    private static final int LEADING_CHARS = 40;
+    private static final int SNIPPET_CHARS = 160;
+
+    private SnippetHighlighter() {
+    }
+
+    static String highlight(String content, String query) {
+        if (content == null) {
+            return "";
+        }
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return escape(abbreviate(content));
+        }
+        Pattern pattern = Pattern.compile("(?iu)(?<![\\p{L}\\p{N}])(" + String.join("|", terms) + ")(?![\\p{L}\\p{N}])");
+        Matcher first = pattern.matcher(content);
+        int start = first.find() ? Math.max(0, first.start() - LEADING_CHARS) : 0;
+        int end = Math.min(content.length(), start + SNIPPET_CHARS);
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append("…");
+        }
+        Matcher matcher = pattern.matcher(content).region(start, end);
+        int last = start;
+        while (matcher.find()) {
+            snippet.append(escape(content.substring(last, matcher.start())))
+                    .append("<mark>").append(escape(matcher.group())).append("</mark>");
+            last = matcher.end();
+        }
+        snippet.append(escape(content.substring(last, end)));
+        if (end < content.length()) {
+            snippet.append("…");
+        }
+        return snippet.toString();
+    }
+
+    // Mirrors websearch_to_tsquery loosely: quotes are ignored, "or" is an
+    // operator and "-term" excludes rather than matches.
+    private static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.startsWith("-") || word.equalsIgnoreCase("or")) {
+                continue;
+            }
+            for (String token : word.split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    terms.add(Pattern.quote(token));
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static String abbreviate(String content) {
+        return content.length() > SNIPPET_CHARS ? content.substring(0, SNIPPET_CHARS) + "…" : content;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
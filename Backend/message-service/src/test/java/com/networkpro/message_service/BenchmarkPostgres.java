@@ -0,0 +1,36 @@
+package com.networkpro.message_service;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Database for the tests tagged {@code benchmark}: a throwaway Postgres
+ * container, or the database at {@code -Dbenchmark.jdbc-url} (with
+ * {@code -Dbenchmark.username} and {@code -Dbenchmark.password}) where Docker
+ * is not available. The schema is dropped and recreated on startup, so point
+ * it only at a scratch database.
+ */
+public final class BenchmarkPostgres {
+    private static PostgreSQLContainer<?> container;
+
+    private BenchmarkPostgres() {
+    }
+
+    public static synchronized void register(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("benchmark.jdbc-url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.password", ""));
+            return;
+        }
+        if (container == null) {
+            // Shared by every test class in the run; Testcontainers removes it when the JVM exits.
+            container = new PostgreSQLContainer<>("postgres:15.8");
+            container.start();
+        }
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+}
@@ -0,0 +1,173 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.BenchmarkPostgres;
+import com.networkpro.message_service.dto.ConversationRequestDTO;
+import com.networkpro.message_service.dto.GroupMessageRequestDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Cost of sending to groups of 2, 50 and 500 members, a tenth of them online
+ * on the push channel. For each size, concurrent senders post their share of
+ * the messages and the test prints throughput, send latency and the rows
+ * written per message across all tables. Checks that every message was sent,
+ * that no push was dropped and that the rows written per message do not grow
+ * with the group.
+ *
+ * Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark -Dtest=GroupMessageWriteCostTest}.
+ */
+@Tag("benchmark")
+// Open push streams would hold up a graceful shutdown for its full timeout.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "server.shutdown=immediate"
+})
+class GroupMessageWriteCostTest {
+    private static final int[] GROUP_SIZES = {2, 50, 500};
+    private static final int MESSAGES = 3000;
+    private static final int SENDERS = 16;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        BenchmarkPostgres.register(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writeCostStaysFlatAsGroupsGrow() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<Integer, Double> rowsPerMessage = new LinkedHashMap<>();
+        long firstUser = 100_000;
+        for (int size : GROUP_SIZES) {
+            long owner = firstUser;
+            firstUser += 1000;
+            ConversationRequestDTO group = new ConversationRequestDTO();
+            group.setName("group of " + size);
+            group.setCreatorId(owner);
+            group.setMemberIds(LongStream.range(owner + 1, owner + size).boxed().toList());
+            Long conversationId = conversationService.createConversation(group).getId();
+            // The stream sends no headers until its first event, so wait for
+            // the subscription rather than the response.
+            for (long member = owner + 1; member < owner + size; member += 10) {
+                client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/push/" + member))
+                        .GET().build(), HttpResponse.BodyHandlers.discarding());
+                while (!pushService.isConnected(member)) {
+                    Thread.sleep(10);
+                }
+            }
+
+            // Warm up, then measure.
+            send(conversationId, owner, size, MESSAGES / 10, false);
+            rowsPerMessage.put(size, send(conversationId, owner, size, MESSAGES, true));
+        }
+        client.shutdownNow();
+
+        assertThat(meterRegistry.counter("message.push.fanout.rejected").count()).isZero();
+        assertThat(rowsPerMessage.get(500)).isCloseTo(rowsPerMessage.get(2), within(0.5));
+    }
+
+    // Sends `messages` to the group from SENDERS threads and returns the rows
+    // written per message, printing the rest when `report` is set.
+    // Platform threads, like the request threads that call the service; JDBC
+    // calls pin virtual threads to their carrier.
+    private double send(Long conversationId, long sender, int size, int messages, boolean report)
+            throws Exception {
+        long rowsBefore = messageRows(conversationId);
+        long writesBefore = rowWrites();
+        int perSender = messages / SENDERS;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[perSender * SENDERS];
+        List<Thread> senders = new ArrayList<>(SENDERS);
+        for (int s = 0; s < SENDERS; s++) {
+            int k = s;
+            senders.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perSender; i++) {
+                        GroupMessageRequestDTO request = new GroupMessageRequestDTO();
+                        request.setSenderId(sender);
+                        request.setContent("hello group " + i + " from sender " + k);
+                        long begin = System.nanoTime();
+                        messageService.sendGroupMessage(conversationId, request);
+                        latencies[k * perSender + i] = System.nanoTime() - begin;
+                    }
+                } catch (Exception ex) {
+                    errors.incrementAndGet();
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : senders) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        double rowsPerMessage = (double) (rowWrites() - writesBefore) / latencies.length;
+
+        assertThat(errors.get()).isZero();
+        assertThat(messageRows(conversationId) - rowsBefore).isEqualTo(latencies.length);
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("members=%d online=%d: %d messages in %.1f s (%.0f/s), p50=%.2f ms, p99=%.2f ms, "
+                    + "rows written per message=%.2f%n", size, (size + 8) / 10, latencies.length, seconds,
+                    latencies.length / seconds, latencies[latencies.length / 2] / 1e6,
+                    latencies[latencies.length * 99 / 100] / 1e6, rowsPerMessage);
+        }
+        return rowsPerMessage;
+    }
+
+    private long messageRows(Long conversationId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM message WHERE conversation_id = ?", Long.class,
+                conversationId);
+    }
+
+    // Inserts plus updates across all tables so far. Backends report them to
+    // the statistics collector at most once a second.
+    private long rowWrites() throws InterruptedException {
+        Thread.sleep(2000);
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(n_tup_ins + n_tup_upd), 0) FROM pg_stat_user_tables",
+                Long.class);
+    }
+}
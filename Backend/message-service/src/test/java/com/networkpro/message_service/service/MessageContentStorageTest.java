@@ -0,0 +1,184 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.BenchmarkPostgres;
+import com.networkpro.message_service.dto.MessageRequestDTO;
+import com.networkpro.message_service.dto.MessageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Storage size and read latency of message bodies with and without LZ4, on a
+ * corpus of short chat lines, pasted code snippets and long pasted logs. The
+ * corpus is sent through the service with the default 512-byte threshold,
+ * then rewritten in place as raw bodies and back, twice. After each, the
+ * table is compacted and the bytes of content sent to the service, the size
+ * the content column takes on disk, the table size (heap plus TOAST, no
+ * indexes) and the latency of reading history pages are printed. Postgres
+ * compresses large rows in TOAST itself but decompresses them before sending,
+ * so on disk the two come out close while LZ4 bodies cross the wire
+ * compressed. Checks that both encodings read back the same text and that
+ * LZ4 sends fewer bytes.
+ *
+ * Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark -Dtest=MessageContentStorageTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "message.content.compression-threshold-bytes=512"
+})
+class MessageContentStorageTest {
+    private static final int CHAT_LINES = 20_000;
+    private static final int CODE_SNIPPETS = 2_000;
+    private static final int PASTED_LOGS = 1_000;
+    private static final int CONVERSATIONS = 100;
+    private static final int PAGE = 50;
+    private static final int READ_ROUNDS = 20;
+    private static final String[] WORDS = ("the a deploy build failed ok thanks see you tomorrow meeting call review "
+            + "PR merge please check logs error timeout db latency user service api retry fix bug lunch yes no "
+            + "maybe great").split(" ");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        BenchmarkPostgres.register(registry);
+    }
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lz4SendsLessAndReadsBackTheSameText() throws Exception {
+        List<String> corpus = corpus();
+        List<CompletableFuture<MessageResponseDTO>> sent = new ArrayList<>(corpus.size());
+        for (int i = 0; i < corpus.size(); i++) {
+            MessageRequestDTO request = new MessageRequestDTO();
+            request.setSenderId((long) (i % CONVERSATIONS));
+            request.setReceiverId((long) (i % CONVERSATIONS + CONVERSATIONS));
+            request.setContent(corpus.get(i));
+            sent.add(messageService.sendMessageBatched(request));
+            if (sent.size() % 1000 == 0) {
+                CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+            }
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+        long rawBytes = corpus.stream().mapToLong(content -> content.getBytes(StandardCharsets.UTF_8).length).sum();
+
+        // Rewrites the same bodies in place, as a codec with that threshold
+        // stores them; RAW-tagged with compression off. The first round warms
+        // up the JVM and the database, so only the second one counts.
+        List<MessageResponseDTO> stored = sent.stream().map(CompletableFuture::join).toList();
+        long lz4WireBytes = 0;
+        long rawWireBytes = 0;
+        for (int round = 1; round <= 2; round++) {
+            lz4WireBytes = measure("round " + round + ", lz4 >= 512 B", rawBytes, corpus);
+            rewrite(stored, new MessageContentCodec(new SimpleMeterRegistry(), Integer.MAX_VALUE));
+            rawWireBytes = measure("round " + round + ", uncompressed", rawBytes, corpus);
+            rewrite(stored, new MessageContentCodec(new SimpleMeterRegistry(), 512));
+        }
+
+        assertThat(lz4WireBytes).isLessThan(rawWireBytes);
+    }
+
+    private void rewrite(List<MessageResponseDTO> messages, MessageContentCodec codec) {
+        jdbcTemplate.batchUpdate("UPDATE message SET content = ? WHERE id = ?", messages.stream()
+                .map(message -> new Object[]{codec.encode(message.getContent()), message.getId()})
+                .toList());
+    }
+
+    // Compacts the table, then prints its size and the latency of reading the
+    // newest page of every conversation from the database. Returns the bytes of
+    // content sent to the service.
+    private long measure(String label, long rawBytes, List<String> corpus) {
+        jdbcTemplate.execute("VACUUM FULL message");
+        jdbcTemplate.execute("ANALYZE message");
+        long wireBytes = jdbcTemplate.queryForObject("SELECT sum(octet_length(content)) FROM message", Long.class);
+        long diskBytes = jdbcTemplate.queryForObject("SELECT sum(pg_column_size(content)) FROM message",
+                Long.class);
+        long tableBytes = jdbcTemplate.queryForObject("SELECT coalesce(sum(pg_table_size(inhrelid)), 0) "
+                + "FROM pg_inherits WHERE inhparent = 'message'::regclass", Long.class)
+                + jdbcTemplate.queryForObject("SELECT pg_table_size('message')", Long.class);
+
+        // A `before` bound skips the conversation cache. An untimed round
+        // checks the text first.
+        LocalDateTime now = LocalDateTime.now();
+        for (int c = 0; c < CONVERSATIONS; c++) {
+            assertThat(messageService.getConversationHistory((long) c, (long) (c + CONVERSATIONS), now, null, PAGE))
+                    .hasSize(PAGE)
+                    .allSatisfy(message -> assertThat(corpus).contains(message.getContent()));
+        }
+        long[] latencies = new long[READ_ROUNDS * CONVERSATIONS];
+        for (int round = 0; round < READ_ROUNDS; round++) {
+            for (int c = 0; c < CONVERSATIONS; c++) {
+                long begin = System.nanoTime();
+                messageService.getConversationHistory((long) c, (long) (c + CONVERSATIONS), now, null, PAGE);
+                latencies[round * CONVERSATIONS + c] = System.nanoTime() - begin;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d bodies, %.1f MB raw, %.1f MB sent (%.2f of raw), %.1f MB on disk, table %.1f MB; "
+                + "%d-message history page p50=%.2f ms, p99=%.2f ms%n", label, corpus.size(), rawBytes / 1e6,
+                wireBytes / 1e6, (double) wireBytes / rawBytes, diskBytes / 1e6, tableBytes / 1e6, PAGE,
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6);
+        return wireBytes;
+    }
+
+    // Chat lines of 3 to 32 words, code snippets of 10 to 40 lines and log
+    // excerpts of 20 to 320 lines as people paste them, shuffled together.
+    private static List<String> corpus() {
+        Random random = new Random(42);
+        List<String> corpus = new ArrayList<>(CHAT_LINES + CODE_SNIPPETS + PASTED_LOGS);
+        for (int i = 0; i < CHAT_LINES; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int w = 3 + random.nextInt(30); w > 0; w--) {
+                line.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            corpus.add(line.toString().trim());
+        }
+        for (int i = 0; i < CODE_SNIPPETS; i++) {
+            StringBuilder code = new StringBuilder("```java\n");
+            for (int l = 10 + random.nextInt(31); l > 0; l--) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                code.append(switch (random.nextInt(4)) {
+                    case 0 -> "    if (" + word + " == null) {\n        return Optional.empty();\n    }\n";
+                    case 1 -> "    log.info(\"" + word + " took {} ms\", elapsed);\n";
+                    case 2 -> "    var " + word + "Result = " + word + "Service.find(" + random.nextInt(1000) + ");\n";
+                    default -> "    // " + word + " " + WORDS[random.nextInt(WORDS.length)] + "\n";
+                });
+            }
+            corpus.add(code.append("```").toString());
+        }
+        for (int i = 0; i < PASTED_LOGS; i++) {
+            StringBuilder log = new StringBuilder();
+            for (int l = 20 + random.nextInt(300); l > 0; l--) {
+                log.append(String.format("2026-10-19T10:%02d:%02d.%03dZ %s [http-nio-8095-exec-%d] "
+                                + "c.n.m.service.%s : request id=%d took %dms%n", random.nextInt(60),
+                        random.nextInt(60), random.nextInt(1000), random.nextBoolean() ? "INFO " : "WARN ",
+                        random.nextInt(200), WORDS[random.nextInt(WORDS.length)], random.nextInt(1_000_000),
+                        random.nextInt(900)));
+            }
+            corpus.add(log.toString());
+        }
+        Collections.shuffle(corpus, random);
+        return corpus;
+    }
+}
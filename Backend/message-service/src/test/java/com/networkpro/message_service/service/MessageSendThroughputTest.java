@@ -0,0 +1,109 @@
+package com.networkpro.message_service.service;
+
+import com.networkpro.message_service.BenchmarkPostgres;
+import com.networkpro.message_service.dto.MessageRequestDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Send throughput of the per-message path against the group-commit writer,
+ * on a real Postgres. The same number of concurrent callers each send their
+ * share of the messages one after another, waiting for each to be stored.
+ * Prints messages per second and send latency for both paths, and checks
+ * that every message was stored and that batching is the faster path.
+ *
+ * Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark -Dtest=MessageSendThroughputTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create")
+class MessageSendThroughputTest {
+    private static final int MESSAGES = 20_000;
+    private static final int CALLERS = 64;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        BenchmarkPostgres.register(registry);
+    }
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchedSendsOutpaceOneTransactionPerMessage() throws Exception {
+        // Warm up both paths before measuring either.
+        run("warm-up direct", MESSAGES / 10, messageService::sendMessage);
+        run("warm-up batched", MESSAGES / 10, request -> messageService.sendMessageBatched(request).join());
+
+        double direct = run("direct", MESSAGES, messageService::sendMessage);
+        double batched = run("batched", MESSAGES, request -> messageService.sendMessageBatched(request).join());
+        System.out.printf("batched/direct throughput: %.1fx%n", batched / direct);
+        assertThat(batched).isGreaterThan(direct);
+    }
+
+    // Sends `messages` from CALLERS threads and returns messages per second.
+    // Platform threads, like the request threads that call the service; JDBC
+    // calls pin virtual threads to their carrier.
+    private double run(String label, int messages, Consumer<MessageRequestDTO> send) throws Exception {
+        long rowsBefore = messageRows();
+        int perCaller = messages / CALLERS;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[perCaller * CALLERS];
+        List<Thread> callers = new ArrayList<>(CALLERS);
+        for (int caller = 0; caller < CALLERS; caller++) {
+            int c = caller;
+            callers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perCaller; i++) {
+                        MessageRequestDTO request = new MessageRequestDTO();
+                        request.setSenderId((long) c);
+                        request.setReceiverId((long) (c + i) % CALLERS + CALLERS);
+                        request.setContent(label + " message " + i + " from caller " + c);
+                        long begin = System.nanoTime();
+                        send.accept(request);
+                        latencies[c * perCaller + i] = System.nanoTime() - begin;
+                    }
+                } catch (Exception ex) {
+                    errors.incrementAndGet();
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d messages from %d callers in %.1f s (%.0f/s), p50=%.1f ms, p99=%.1f ms%n",
+                label, latencies.length, CALLERS, seconds, latencies.length / seconds,
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6);
+        assertThat(errors.get()).isZero();
+        assertThat(messageRows() - rowsBefore).isEqualTo(latencies.length);
+        return latencies.length / seconds;
+    }
+
+    private long messageRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM message", Long.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.networkpro.post_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one post's Markdown, which render-on-write takes off the
+ * read path. Run with {@code mvn -Pjmh test-compile exec:exec}; add
+ * {@code -Djmh.args="-prof gc"} for allocation per render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownRendererBenchmark {
+    // Post text as people write it: emphasis, mentions, links, a list, code
+    // spans, hashtags and a quote.
+    private static final String[] PARAGRAPHS = {
+            "Excited to share that our team just shipped **v2 of the payments API** after six months of work.",
+            "Huge thanks to @maria and @dev_ops_joe for the late nights. Details: "
+                    + "https://example.com/blog/payments-v2",
+            "What we learned:\n- Start with *observability*, not features\n- Keep the `retry` logic idempotent\n"
+                    + "- Measure p99, not averages",
+            "If you are hiring for backend roles, [check our openings](https://example.com/jobs) "
+                    + "#hiring #java #backend",
+            "> The best code is the code you never had to write.\n\nStill true in 2026."
+    };
+
+    // A short status, a typical post and one at the 3000 character limit.
+    @Param({"280", "1300", "3000"})
+    private int chars;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < chars; i++) {
+            text.append(PARAGRAPHS[i % PARAGRAPHS.length]).append("\n\n");
+        }
+        content = text.substring(0, chars);
+    }
+
+    @Benchmark
+    public String render() {
+        return MarkdownRenderer.render(content);
+    }
+}
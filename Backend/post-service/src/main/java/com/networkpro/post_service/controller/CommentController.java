@@ -0,0 +1,61 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.CommentPageDTO;
+import com.networkpro.post_service.dto.CommentRequestDTO;
+import com.networkpro.post_service.model.Comment;
+import com.networkpro.post_service.service.CommentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/posts")
+@Tag(name = "Comment API", description = "Threaded comments on posts")
+public class CommentController {
+    @Autowired
+    private CommentService commentService;
+
+    @Operation(summary = "Comment on a post or reply to a comment",
+            description = "POST /api/posts/{postId}/comments - set parentId to reply; replies nest at most 2 deep")
+    @PostMapping("/{postId}/comments")
+    public ResponseEntity<Comment> addComment(@PathVariable Long postId, @RequestBody CommentRequestDTO request) {
+        return ResponseEntity.ok(commentService.addComment(postId, request));
+    }
+
+    @Operation(summary = "List top-level comments of a post, newest first",
+            description = "GET /api/posts/{postId}/comments?cursor={cursor}&size={n}")
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CommentPageDTO> getComments(@PathVariable Long postId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getComments(postId, cursor, size));
+    }
+
+    @Operation(summary = "List the replies in a comment thread, oldest first",
+            description = "GET /api/posts/{postId}/comments/{commentId}/replies?cursor={cursor}&size={n}")
+    @GetMapping("/{postId}/comments/{commentId}/replies")
+    public ResponseEntity<CommentPageDTO> getReplies(@PathVariable Long postId, @PathVariable Long commentId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getReplies(postId, commentId, cursor, size));
+    }
+
+    @Operation(summary = "Get the newest comments of several posts at once",
+            description = "GET /api/posts/comments/previews?postIds={id},{id}&perPost={n} - for feed previews")
+    @GetMapping("/comments/previews")
+    public ResponseEntity<Map<Long, List<Comment>>> getPreviews(@RequestParam List<Long> postIds,
+            @RequestParam(defaultValue = "3") int perPost) {
+        return ResponseEntity.ok(commentService.getPreviews(postIds, perPost));
+    }
+
+    @Operation(summary = "Delete a comment and its replies",
+            description = "DELETE /api/posts/{postId}/comments/{commentId}")
+    @DeleteMapping("/{postId}/comments/{commentId}")
+    public ResponseEntity<Void> deleteComment(@PathVariable Long postId, @PathVariable Long commentId) {
+        commentService.deleteComment(postId, commentId);
+        return ResponseEntity.noContent().build();
+    }
+}
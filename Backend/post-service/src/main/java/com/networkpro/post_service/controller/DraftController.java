@@ -0,0 +1,64 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.DraftDTO;
+import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.model.PostDraft;
+import com.networkpro.post_service.service.DraftService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/drafts")
+@Tag(name = "Draft API", description = "Post drafts with coalesced autosave")
+public class DraftController {
+    @Autowired
+    private DraftService draftService;
+
+    @Operation(summary = "Create a draft", description = "POST /api/drafts")
+    @PostMapping
+    public ResponseEntity<PostDraft> createDraft(@RequestBody DraftDTO draftDTO) {
+        return ResponseEntity.ok(draftService.createDraft(draftDTO));
+    }
+
+    @Operation(summary = "Autosave a draft",
+            description = "PUT /api/drafts/{draftId} - accepted at once, written with the other saves of its window")
+    @PutMapping("/{draftId}")
+    public ResponseEntity<Void> autosave(@PathVariable Long draftId, @RequestBody DraftDTO draftDTO) {
+        draftService.autosave(draftId, draftDTO);
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Get a draft", description = "GET /api/drafts/{draftId}")
+    @GetMapping("/{draftId}")
+    public ResponseEntity<PostDraft> getDraft(@PathVariable Long draftId) {
+        return ResponseEntity.ok(draftService.getDraft(draftId));
+    }
+
+    @Operation(summary = "List an author's drafts, last edited first", description = "GET /api/drafts?author={author}")
+    @GetMapping
+    public ResponseEntity<List<PostDraft>> getDraftsByAuthor(@RequestParam String author) {
+        return ResponseEntity.ok(draftService.getDraftsByAuthor(author));
+    }
+
+    @Operation(summary = "Publish a draft as a post",
+            description = "POST /api/drafts/{draftId}/publish?publishAt={time} - publishAt schedules the post")
+    @PostMapping("/{draftId}/publish")
+    public ResponseEntity<Post> publishDraft(@PathVariable Long draftId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime publishAt) {
+        return ResponseEntity.ok(draftService.publishDraft(draftId, publishAt));
+    }
+
+    @Operation(summary = "Delete a draft", description = "DELETE /api/drafts/{draftId}")
+    @DeleteMapping("/{draftId}")
+    public ResponseEntity<Void> deleteDraft(@PathVariable Long draftId) {
+        draftService.deleteDraft(draftId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.PostPageDTO;
+import com.networkpro.post_service.service.FeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/feed")
+@Tag(name = "Feed API", description = "Home feeds built from the authors a user follows")
+public class FeedController {
+    @Autowired
+    private FeedService feedService;
+
+    @Operation(summary = "Get a user's home feed, newest first",
+            description = "GET /api/feed/{user}?cursor={cursor}&size={n}")
+    @GetMapping("/{user}")
+    public ResponseEntity<PostPageDTO> getFeed(@PathVariable String user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(feedService.getFeed(user, cursor, size));
+    }
+
+    @Operation(summary = "Follow an author", description = "PUT /api/feed/{user}/following/{author}")
+    @PutMapping("/{user}/following/{author}")
+    public ResponseEntity<Void> follow(@PathVariable String user, @PathVariable String author) {
+        feedService.follow(user, author);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Unfollow an author", description = "DELETE /api/feed/{user}/following/{author}")
+    @DeleteMapping("/{user}/following/{author}")
+    public ResponseEntity<Void> unfollow(@PathVariable String user, @PathVariable String author) {
+        feedService.unfollow(user, author);
+        return ResponseEntity.noContent().build();
+    }
+}
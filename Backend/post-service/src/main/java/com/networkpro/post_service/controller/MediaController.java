@@ -0,0 +1,76 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.MediaDTO;
+import com.networkpro.post_service.service.ETagCache;
+import com.networkpro.post_service.service.MediaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Media API", description = "Image attachments of posts and their resized derivatives")
+public class MediaController {
+    // Files are named by their content hash, so a URL never changes meaning.
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+            .immutable();
+    private static final String NOSNIFF_HEADER = "X-Content-Type-Options";
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Operation(summary = "Attach an image to a post",
+            description = "POST /api/posts/{postId}/media - the image is the raw request body (JPEG, PNG or GIF); "
+                    + "answers at once, derivatives are rendered in the background")
+    @PostMapping("/posts/{postId}/media")
+    public ResponseEntity<MediaDTO> upload(@PathVariable Long postId, HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(mediaService.upload(postId, request.getContentType(), request.getInputStream()));
+    }
+
+    @Operation(summary = "List the images of a post",
+            description = "GET /api/posts/{postId}/media - derivative URLs point at the original until rendered")
+    @GetMapping("/posts/{postId}/media")
+    public ResponseEntity<List<MediaDTO>> getMediaOfPost(@PathVariable Long postId) {
+        return ResponseEntity.ok(mediaService.getMediaOfPost(postId));
+    }
+
+    @Operation(summary = "Remove an image from a post", description = "DELETE /api/posts/{postId}/media/{mediaId}")
+    @DeleteMapping("/posts/{postId}/media/{mediaId}")
+    public ResponseEntity<Void> deleteMedia(@PathVariable Long postId, @PathVariable Long mediaId) {
+        mediaService.deleteMedia(postId, mediaId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // nosniff: browsers must treat the bytes as the declared image type, never
+    // as HTML or script, whatever an upload smuggled into them.
+    @Operation(summary = "Get an image file",
+            description = "GET /api/media/{sha256}.{format} - immutable; supports byte ranges and If-None-Match")
+    @GetMapping("/media/{name}")
+    public ResponseEntity<Resource> getFile(@PathVariable String name,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MediaService.MediaFile file = mediaService.getFile(name);
+        String etag = "\"" + file.sha256() + "\"";
+        if (ETagCache.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(IMMUTABLE)
+                    .header(NOSNIFF_HEADER, "nosniff").build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(IMMUTABLE).header(NOSNIFF_HEADER, "nosniff")
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .body(new FileSystemResource(file.path()));
+    }
+}
@@ -1,13 +1,19 @@
 package com.networkpro.post_service.controller;
 
+import com.networkpro.post_service.dto.PostBatchDTO;
 import com.networkpro.post_service.dto.PostDTO;
+import com.networkpro.post_service.dto.PostPageDTO;
 import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.service.ETagCache;
 import com.networkpro.post_service.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
 import java.util.List;
 
 @RestController
@@ -23,22 +29,59 @@ public class PostController {
         return ResponseEntity.ok(postService.createPost(postDTO));
     }
 
-    @Operation(summary = "Get all posts", description = "GET /api/posts")
+    @Operation(summary = "List posts, newest first",
+            description = "GET /api/posts?cursor={cursor}&size={n} - pass nextCursor back to get the next page")
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        return ResponseEntity.ok(postService.getAllPosts());
+    public ResponseEntity<PostPageDTO> getPosts(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPosts(cursor, size));
+    }
+
+    @Operation(summary = "List an author's posts, newest first",
+            description = "GET /api/posts/authors/{authorId}?cursor={cursor}&size={n} - by user id, "
+                    + "so renaming the user does not matter")
+    @GetMapping("/authors/{authorId}")
+    public ResponseEntity<PostPageDTO> getPostsByAuthorId(@PathVariable Long authorId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPostsByAuthorId(authorId, cursor, size));
+    }
+
+    @Operation(summary = "Search posts by title and content",
+            description = "GET /api/posts/search?q={query}&cursor={cursor}&size={n} - ranked by relevance and recency")
+    @GetMapping("/search")
+    public ResponseEntity<PostPageDTO> searchPosts(@RequestParam("q") String query,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.searchPosts(query, cursor, size));
+    }
+
+    @Operation(summary = "Get several posts by ID",
+            description = "GET /api/posts/batch?ids={id},{id},... - up to 500 ids, returned in the requested order; "
+                    + "ids with no post are listed in `missing`")
+    @GetMapping("/batch")
+    public ResponseEntity<PostBatchDTO> getPostsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(postService.getPostsByIds(ids));
     }
 
-    @Operation(summary = "Get a post by ID", description = "GET /api/posts/{id}")
+    @Operation(summary = "Get a post by ID",
+            description = "GET /api/posts/{id} - answers 304 when If-None-Match holds the current ETag")
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPostById(id));
+    public ResponseEntity<Post> getPostById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = postService.getPostETag(id);
+            if (ETagCache.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        Post post = postService.getPostById(id);
+        return ResponseEntity.ok().eTag(ETagCache.tag(post.getVersion())).body(post);
     }
 
     @Operation(summary = "Update a post", description = "PUT /api/posts/{id}")
     @PutMapping("/{id}")
     public ResponseEntity<Post> updatePost(@PathVariable Long id, @RequestBody PostDTO postDTO) {
-        return ResponseEntity.ok(postService.updatePost(id, postDTO));
+        Post post = postService.updatePost(id, postDTO);
+        return ResponseEntity.ok().eTag(ETagCache.tag(post.getVersion())).body(post);
     }
 
     @Operation(summary = "Delete a post", description = "DELETE /api/posts/{id}")
@@ -0,0 +1,42 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.PostCountsDTO;
+import com.networkpro.post_service.dto.ReactionRequestDTO;
+import com.networkpro.post_service.service.ReactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/posts/{postId}/reactions")
+@Tag(name = "Reaction API", description = "Reactions to posts and post counters")
+public class ReactionController {
+    @Autowired
+    private ReactionService reactionService;
+
+    @Operation(summary = "Get reaction and comment counts of a post",
+            description = "GET /api/posts/{postId}/reactions?userId={userId} - userId adds that user's own reaction")
+    @GetMapping
+    public ResponseEntity<PostCountsDTO> getCounts(@PathVariable Long postId,
+            @RequestParam(required = false) String userId) {
+        return ResponseEntity.ok(reactionService.getCounts(postId, userId));
+    }
+
+    @Operation(summary = "Set a user's reaction to a post", description = "PUT /api/posts/{postId}/reactions/{userId}")
+    @PutMapping("/{userId}")
+    public ResponseEntity<Void> react(@PathVariable Long postId, @PathVariable String userId,
+            @RequestBody ReactionRequestDTO request) {
+        reactionService.react(postId, userId, request.getType());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Remove a user's reaction to a post",
+            description = "DELETE /api/posts/{postId}/reactions/{userId}")
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> removeReaction(@PathVariable Long postId, @PathVariable String userId) {
+        reactionService.removeReaction(postId, userId);
+        return ResponseEntity.noContent().build();
+    }
+}
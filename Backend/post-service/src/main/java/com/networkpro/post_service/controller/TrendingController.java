@@ -0,0 +1,33 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.TrendingItemDTO;
+import com.networkpro.post_service.service.TrendingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trending")
+@Tag(name = "Trending API", description = "Most engaged posts and most used hashtags of the last hour")
+public class TrendingController {
+    @Autowired
+    private TrendingService trendingService;
+
+    @Operation(summary = "Get trending post ids with their engagement scores",
+            description = "GET /api/trending/posts?limit={n}")
+    @GetMapping("/posts")
+    public ResponseEntity<List<TrendingItemDTO>> trendingPosts(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.trendingPosts(limit));
+    }
+
+    @Operation(summary = "Get trending hashtags with their use counts",
+            description = "GET /api/trending/hashtags?limit={n}")
+    @GetMapping("/hashtags")
+    public ResponseEntity<List<TrendingItemDTO>> trendingHashtags(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.trendingHashtags(limit));
+    }
+}
@@ -0,0 +1,50 @@
+package com.networkpro.post_service.controller;
+
+import com.networkpro.post_service.dto.DailyViewsDTO;
+import com.networkpro.post_service.dto.PostViewsDTO;
+import com.networkpro.post_service.dto.ViewEventDTO;
+import com.networkpro.post_service.service.ViewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/posts")
+@Tag(name = "View API", description = "Post impressions, view counts and unique viewers")
+public class ViewController {
+    @Autowired
+    private ViewService viewService;
+
+    @Operation(summary = "Record a batch of post views",
+            description = "POST /api/posts/views - up to 1000 events of {postId, viewer}")
+    @PostMapping("/views")
+    public ResponseEntity<Void> recordViews(@RequestBody List<ViewEventDTO> events) {
+        viewService.recordViews(events);
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Get view and unique viewer counts of a post", description = "GET /api/posts/{postId}/views")
+    @GetMapping("/{postId}/views")
+    public ResponseEntity<PostViewsDTO> getPostViews(@PathVariable Long postId) {
+        return ResponseEntity.ok(viewService.getPostViews(postId));
+    }
+
+    @Operation(summary = "Get daily views of an author's posts",
+            description = "GET /api/posts/views/authors/{author}?from={yyyy-MM-dd}&to={yyyy-MM-dd} - "
+                    + "UTC days, the last 30 by default")
+    @GetMapping("/views/authors/{author}")
+    public ResponseEntity<List<DailyViewsDTO>> getAuthorDailyViews(@PathVariable String author,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(viewService.getAuthorDailyViews(author, start, end));
+    }
+}
@@ -0,0 +1,18 @@
+package com.networkpro.post_service.dto;
+
+import com.networkpro.post_service.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageDTO {
+    private List<Comment> comments;
+    // Opaque; pass back as `cursor` to get the next page. Null on the last page.
+    private String nextCursor;
+    private boolean hasMore;
+}
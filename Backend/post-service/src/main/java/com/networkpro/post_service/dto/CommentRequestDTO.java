@@ -0,0 +1,14 @@
+package com.networkpro.post_service.dto;
+
+import lombok.Data;
+
+@Data
+public class CommentRequestDTO {
+    // Characters; checked when a comment is added.
+    public static final int MAX_CONTENT_LENGTH = 3000;
+
+    private String author;
+    private String content;
+    // Set to reply to another comment of the same post.
+    private Long parentId;
+}
@@ -0,0 +1,17 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyViewsDTO {
+    private LocalDate day;
+    private long views;
+    // Distinct viewers across all the posts that day, estimated.
+    private long uniqueViewers;
+}
@@ -0,0 +1,16 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftDTO {
+    private String title;
+    private String content;
+    // Only read when the draft is created.
+    private String author;
+    private Long authorId;
+}
@@ -0,0 +1,23 @@
+package com.networkpro.post_service.dto;
+
+import com.networkpro.post_service.model.MediaStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaDTO {
+    private Long id;
+    private Long postId;
+    private MediaStatus status;
+    private String originalUrl;
+    // Point at the original until the derivatives are READY, and stay there
+    // if rendering FAILED.
+    private String thumbnailUrl;
+    private String feedUrl;
+    private String fullUrl;
+    private Integer width;
+    private Integer height;
+}
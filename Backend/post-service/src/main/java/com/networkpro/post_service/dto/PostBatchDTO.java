@@ -0,0 +1,18 @@
+package com.networkpro.post_service.dto;
+
+import com.networkpro.post_service.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBatchDTO {
+    // In the order the ids were requested.
+    private List<Post> posts;
+    // Requested ids with no post, e.g. deleted since they were listed.
+    private List<Long> missing;
+}
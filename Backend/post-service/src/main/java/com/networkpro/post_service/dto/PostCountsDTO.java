@@ -0,0 +1,20 @@
+package com.networkpro.post_service.dto;
+
+import com.networkpro.post_service.model.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCountsDTO {
+    private Long postId;
+    private Map<ReactionType, Long> reactions;
+    private long totalReactions;
+    private long comments;
+    // The asking user's own reaction, when a userId was given and they reacted.
+    private ReactionType userReaction;
+}
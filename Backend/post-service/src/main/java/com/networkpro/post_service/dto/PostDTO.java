@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,8 @@ public class PostDTO {
     private String title;
     private String content;
     private String author;
+    // Optional; posts without it are linked by the author backfill.
+    private Long authorId;
+    // Optional; a future time schedules the post instead of publishing it.
+    private LocalDateTime publishAt;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostPageDTO {
+    private List<PostSummaryDTO> posts;
+    // Opaque; pass back as `cursor` to get the next page. Null on the last page.
+    private String nextCursor;
+    private boolean hasMore;
+}
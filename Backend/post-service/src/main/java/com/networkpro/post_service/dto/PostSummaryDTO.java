@@ -0,0 +1,18 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// List-view projection of a post; leaves out the content.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String title;
+    private String author;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostViewsDTO {
+    private Long postId;
+    private long views;
+    // HyperLogLog estimate, within a few percent.
+    private long uniqueViewers;
+}
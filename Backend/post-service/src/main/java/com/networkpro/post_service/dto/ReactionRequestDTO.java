@@ -0,0 +1,9 @@
+package com.networkpro.post_service.dto;
+
+import com.networkpro.post_service.model.ReactionType;
+import lombok.Data;
+
+@Data
+public class ReactionRequestDTO {
+    private ReactionType type;
+}
@@ -0,0 +1,14 @@
+package com.networkpro.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A trending post id or hashtag with its estimated engagement in the window.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingItemDTO {
+    private String key;
+    private long score;
+}
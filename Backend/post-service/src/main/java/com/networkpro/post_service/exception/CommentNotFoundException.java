@@ -0,0 +1,7 @@
+package com.networkpro.post_service.exception;
+
+public class CommentNotFoundException extends RuntimeException {
+    public CommentNotFoundException(String message) {
+        super(message);
+    }
+}
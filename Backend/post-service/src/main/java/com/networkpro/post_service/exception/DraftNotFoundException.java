@@ -0,0 +1,7 @@
+package com.networkpro.post_service.exception;
+
+public class DraftNotFoundException extends RuntimeException {
+    public DraftNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
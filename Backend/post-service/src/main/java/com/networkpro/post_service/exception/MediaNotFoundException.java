@@ -0,0 +1,7 @@
+package com.networkpro.post_service.exception;
+
+public class MediaNotFoundException extends RuntimeException {
+    public MediaNotFoundException(String message) {
+        super(message);
+    }
+}
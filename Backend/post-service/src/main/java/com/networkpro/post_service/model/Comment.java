@@ -0,0 +1,42 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Adjacency model: top-level comments have no parent; replies point at their
+// parent and at the top-level comment of their thread, so a whole thread is
+// one range read on (root_id, id).
+@Entity
+@Table(name = "post_comment", indexes = {
+        @Index(name = "idx_post_comment_post_parent_id", columnList = "post_id, parent_id, id"),
+        @Index(name = "idx_post_comment_root_id", columnList = "root_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Comment {
+    public static final int MAX_DEPTH = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    @Column(name = "parent_id")
+    private Long parentId;
+    @Column(name = "root_id")
+    private Long rootId;
+    // 0 for top-level comments, up to MAX_DEPTH for replies.
+    private int depth;
+    private String author;
+    // Length is capped by CommentRequestDTO.MAX_CONTENT_LENGTH, not the column.
+    @Column(columnDefinition = "text")
+    private String content;
+    // Direct replies to this comment.
+    private int replyCount;
+    private LocalDateTime createdAt;
+}
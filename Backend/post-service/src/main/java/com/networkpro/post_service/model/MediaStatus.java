@@ -0,0 +1,7 @@
+package com.networkpro.post_service.model;
+
+public enum MediaStatus {
+    PENDING,
+    READY,
+    FAILED
+}
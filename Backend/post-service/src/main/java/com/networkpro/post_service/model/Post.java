@@ -4,9 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Generated;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_author_feed_key", columnList = "author, feed_key"),
+        @Index(name = "idx_posts_author_ref_created_at_id", columnList = "author_id, created_at, id"),
+        @Index(name = "idx_posts_published_publish_at_id", columnList = "published, publish_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +23,32 @@ public class Post {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String title;
+    // Markdown.
+    @Column(columnDefinition = "text")
     private String content;
+    // The content rendered by the renderer version in renderVersion; see
+    // PostRenderer.
+    @Column(name = "content_html", columnDefinition = "text")
+    private String contentHtml;
+    @Column(name = "render_version")
+    private int renderVersion;
+    // Display name of the author when the post was written.
     private String author;
+    // User id of the author in user-service; null until resolved.
+    @Column(name = "author_id")
+    private Long authorId;
+    private LocalDateTime createdAt;
+    // Scheduled posts stay unpublished, out of lists, feeds and search,
+    // until publishAt; createdAt is then set to when they went out.
+    @Column(name = "publish_at")
+    private LocalDateTime publishAt;
+    private boolean published = true;
+    // Position in home feeds, from post_feed_seq: drawn on insert and again
+    // when a scheduled post is published, so it goes out at the top of feeds.
+    @Generated
+    @Column(name = "feed_key", insertable = false, updatable = false)
+    private Long feedKey;
+    // Bumped on every update; the post's ETag.
+    @Version
+    private Long version;
 }
\ No newline at end of file
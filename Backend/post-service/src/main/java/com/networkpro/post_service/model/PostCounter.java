@@ -0,0 +1,35 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Flushed total of one counter of a post: a reaction type or COMMENT.
+// Written only by PostCounters, which adds deltas in batches.
+@Entity
+@Table(name = "post_counter")
+@IdClass(PostCounter.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCounter {
+    public static final String COMMENTS = "COMMENT";
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    @Id
+    private String name;
+    private long value;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long postId;
+        private String name;
+    }
+}
@@ -0,0 +1,32 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An unpublished post being edited. Autosaves reach this row through
+// DraftBuffer, at most once per window.
+@Entity
+@Table(name = "post_draft", indexes = {
+        @Index(name = "idx_post_draft_author_updated_at", columnList = "author, updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostDraft {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String author;
+    @Column(name = "author_id")
+    private Long authorId;
+    private String title;
+    @Column(columnDefinition = "text")
+    private String content;
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "post_hashtag", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_hashtag_post_tag", columnNames = {"post_id", "tag"})
+}, indexes = {
+        @Index(name = "idx_post_hashtag_tag_post", columnList = "tag, post_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostHashtag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    // Lower-cased, without the leading '#'.
+    @Column(nullable = false, length = 50)
+    private String tag;
+}
@@ -0,0 +1,43 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An image attached to a post. The original is stored as uploaded; the
+// derivatives are filled in by MediaPipeline once they are rendered. Every
+// file is named by the SHA-256 of its content.
+@Entity
+@Table(name = "post_media", indexes = {
+        @Index(name = "idx_post_media_post_id", columnList = "post_id, id"),
+        @Index(name = "idx_post_media_status_id", columnList = "status, id"),
+        @Index(name = "idx_post_media_original_sha", columnList = "original_sha")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostMedia {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "post_id")
+    private Long postId;
+    @Column(name = "original_sha")
+    private String originalSha;
+    // File extension of the original: jpg, png or gif.
+    private String originalFormat;
+    private long size;
+    @Enumerated(EnumType.STRING)
+    private MediaStatus status;
+    // Set once READY.
+    private Integer width;
+    private Integer height;
+    private String derivativeFormat;
+    private String thumbnailSha;
+    private String feedSha;
+    private String fullSha;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A user's current reaction to a post; at most one per user and post, so
+// repeating a reaction never counts twice.
+@Entity
+@Table(name = "post_reaction", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_reaction_post_user", columnNames = {"post_id", "user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostReaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReactionType type;
+    private LocalDateTime createdAt;
+}
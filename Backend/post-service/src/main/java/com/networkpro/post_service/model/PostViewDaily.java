@@ -0,0 +1,37 @@
+package com.networkpro.post_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Views of one post on one UTC day, and a HyperLogLog sketch of who viewed
+// it. Written only by PostViews, which merges in what it gathered in memory.
+@Entity
+@Table(name = "post_view_daily")
+@IdClass(PostViewDaily.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostViewDaily {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    @Id
+    private LocalDate day;
+    private long views;
+    // Estimate from the sketch, kept so SQL reports need not decode it.
+    private long uniqueViewers;
+    private byte[] sketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long postId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,10 @@
+package com.networkpro.post_service.model;
+
+public enum ReactionType {
+    LIKE,
+    CELEBRATE,
+    SUPPORT,
+    LOVE,
+    INSIGHTFUL,
+    FUNNY
+}
@@ -0,0 +1,47 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.Comment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // Top-level comments of a post, newest first.
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId AND c.parentId IS NULL AND c.id < :before "
+            + "ORDER BY c.id DESC")
+    List<Comment> findTopLevel(@Param("postId") Long postId, @Param("before") long before, Limit limit);
+
+    // Every reply in a thread, oldest first; clients nest them by parentId.
+    @Query("SELECT c FROM Comment c WHERE c.rootId = :rootId AND c.id > :after ORDER BY c.id")
+    List<Comment> findThread(@Param("rootId") Long rootId, @Param("after") long after, Limit limit);
+
+    // Newest top-level comments of each of a page of posts in one statement:
+    // a LIMIT per post off idx_post_comment_post_parent_id. Scheduled posts get none.
+    @Query(value = "SELECT c.* FROM posts p CROSS JOIN LATERAL (SELECT * FROM post_comment pc "
+            + "WHERE pc.post_id = p.id AND pc.parent_id IS NULL ORDER BY pc.id DESC LIMIT :perPost) c "
+            + "WHERE p.id IN (:postIds) AND p.published", nativeQuery = true)
+    List<Comment> findPreviews(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    int addReplies(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.rootId = :rootId")
+    int deleteByRootId(@Param("rootId") Long rootId);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.parentId = :parentId")
+    int deleteByParentId(@Param("parentId") Long parentId);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -0,0 +1,21 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.PostCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface PostCounterRepository extends JpaRepository<PostCounter, PostCounter.Key> {
+    List<PostCounter> findByPostId(Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostCounter c WHERE c.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -0,0 +1,12 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.PostDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PostDraftRepository extends JpaRepository<PostDraft, Long> {
+    List<PostDraft> findByAuthorOrderByUpdatedAtDesc(String author);
+}
@@ -0,0 +1,28 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.PostHashtag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostHashtagRepository extends JpaRepository<PostHashtag, Long> {
+    @Query("SELECT h.tag FROM PostHashtag h WHERE h.postId = :postId")
+    List<String> findTagsByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostHashtag h WHERE h.postId = :postId AND h.tag IN :tags")
+    int deleteByPostIdAndTagIn(@Param("postId") Long postId, @Param("tags") Collection<String> tags);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostHashtag h WHERE h.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
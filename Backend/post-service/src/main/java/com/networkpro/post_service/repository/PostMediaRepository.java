@@ -0,0 +1,55 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.MediaStatus;
+import com.networkpro.post_service.model.PostMedia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PostMediaRepository extends JpaRepository<PostMedia, Long> {
+    List<PostMedia> findByPostIdOrderByIdAsc(Long postId);
+
+    long countByPostId(Long postId);
+
+    // Derivatives already rendered from the same original, if any.
+    Optional<PostMedia> findFirstByOriginalShaAndStatus(String originalSha, MediaStatus status);
+
+    boolean existsByOriginalShaAndStatus(String originalSha, MediaStatus status);
+
+    boolean existsByOriginalShaAndStatusNot(String originalSha, MediaStatus status);
+
+    @Query("SELECT m.id FROM PostMedia m WHERE m.status = :status AND m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsByStatusAfter(@Param("status") MediaStatus status, @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Only PENDING rows change, so a late or repeated render cannot overwrite
+    // a result; a row deleted meanwhile is not brought back.
+    @Modifying
+    @Transactional
+    @Query("UPDATE PostMedia m SET m.status = com.networkpro.post_service.model.MediaStatus.READY, "
+            + "m.width = :width, m.height = :height, m.derivativeFormat = :format, m.thumbnailSha = :thumbnailSha, "
+            + "m.feedSha = :feedSha, m.fullSha = :fullSha "
+            + "WHERE m.id = :id AND m.status = com.networkpro.post_service.model.MediaStatus.PENDING")
+    int markReady(@Param("id") Long id, @Param("width") int width, @Param("height") int height,
+            @Param("format") String format, @Param("thumbnailSha") String thumbnailSha,
+            @Param("feedSha") String feedSha, @Param("fullSha") String fullSha);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PostMedia m SET m.status = com.networkpro.post_service.model.MediaStatus.FAILED "
+            + "WHERE m.id = :id AND m.status = com.networkpro.post_service.model.MediaStatus.PENDING")
+    int markFailed(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostMedia m WHERE m.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
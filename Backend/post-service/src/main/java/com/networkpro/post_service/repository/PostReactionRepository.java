@@ -0,0 +1,53 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.PostReaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PostReactionRepository extends JpaRepository<PostReaction, Long> {
+    Optional<PostReaction> findByPostIdAndUserId(Long postId, String userId);
+
+    boolean existsByPostIdAndUserId(Long postId, String userId);
+
+    // Each statement below reports exactly which counter moved, so counts stay
+    // right when the same user reacts from several requests at once.
+
+    // Also checks that the post exists and is published, saving a round trip
+    // on the common path; 0 means the user already reacted or there is no
+    // such post out yet.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO post_reaction (post_id, user_id, type, created_at) "
+            + "SELECT :postId, :userId, :type, now() "
+            + "WHERE EXISTS (SELECT 1 FROM posts WHERE id = :postId AND published) "
+            + "ON CONFLICT (post_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") String userId, @Param("type") String type);
+
+    // Returns the replaced type; empty when there was no reaction or it
+    // already had this type. The row lock makes the old type the latest one.
+    @Transactional
+    @Query(value = "UPDATE post_reaction r SET type = :type FROM (SELECT id, type FROM post_reaction "
+            + "WHERE post_id = :postId AND user_id = :userId FOR UPDATE) old "
+            + "WHERE r.id = old.id AND old.type <> :type RETURNING old.type", nativeQuery = true)
+    List<String> replaceType(@Param("postId") Long postId, @Param("userId") String userId,
+            @Param("type") String type);
+
+    // Returns the removed type; empty when there was no reaction.
+    @Transactional
+    @Query(value = "DELETE FROM post_reaction WHERE post_id = :postId AND user_id = :userId RETURNING type",
+            nativeQuery = true)
+    List<String> deleteReturningType(@Param("postId") Long postId, @Param("userId") String userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostReaction r WHERE r.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -1,9 +1,122 @@
 package com.networkpro.post_service.repository;
 
+import com.networkpro.post_service.dto.PostSummaryDTO;
 import com.networkpro.post_service.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-}
\ No newline at end of file
+    // Empty for scheduled posts, which are not out yet.
+    @Query("SELECT p.version FROM Post p WHERE p.id = :id AND p.published = true")
+    Optional<Long> findPublishedVersionById(@Param("id") Long id);
+
+    // False for scheduled posts too; nothing can be added to them until they are out.
+    boolean existsByIdAndPublishedTrue(Long id);
+
+    // Keyset pages, newest first, read straight off idx_posts_created_at_id.
+    @Query("SELECT new com.networkpro.post_service.dto.PostSummaryDTO(p.id, p.title, p.author, p.createdAt) "
+            + "FROM Post p WHERE p.published = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findFirstPage(Limit limit);
+
+    @Query("SELECT new com.networkpro.post_service.dto.PostSummaryDTO(p.id, p.title, p.author, p.createdAt) "
+            + "FROM Post p WHERE p.published = true AND (p.createdAt, p.id) < (:createdAt, :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    // Keyset pages of one author's posts, off idx_posts_author_ref_created_at_id.
+    @Query("SELECT new com.networkpro.post_service.dto.PostSummaryDTO(p.id, p.title, p.author, p.createdAt) "
+            + "FROM Post p WHERE p.authorId = :authorId AND p.published = true "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findFirstPageByAuthorId(@Param("authorId") Long authorId, Limit limit);
+
+    @Query("SELECT new com.networkpro.post_service.dto.PostSummaryDTO(p.id, p.title, p.author, p.createdAt) "
+            + "FROM Post p WHERE p.authorId = :authorId AND p.published = true "
+            + "AND (p.createdAt, p.id) < (:createdAt, :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findPageByAuthorIdAfter(@Param("authorId") Long authorId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Newest feed keys of a set of authors, for building and merging home
+    // feeds; read off idx_posts_author_feed_key.
+    @Query("SELECT p.feedKey FROM Post p WHERE p.author IN :authors AND p.published = true "
+            + "AND p.feedKey < :before ORDER BY p.feedKey DESC")
+    List<Long> findFeedKeysByAuthors(@Param("authors") Collection<String> authors, @Param("before") long before,
+            Limit limit);
+
+    @Query("SELECT p.feedKey AS feedKey, p.id AS id, p.title AS title, p.author AS author, "
+            + "p.createdAt AS createdAt FROM Post p WHERE p.feedKey IN :feedKeys AND p.published = true")
+    List<FeedItem> findFeedItemsByFeedKeyIn(@Param("feedKeys") Collection<Long> feedKeys);
+
+    // Full-text matches ranked by relevance decayed by age: a post loses half
+    // its score every :halfLifeDays. Ages are measured from :asOf, fixed for a
+    // whole search so scores, and with them search-after positions, do not
+    // drift between pages. Posts created after :asOf are left out.
+    @Query(value = "SELECT s.id, s.title, s.author, s.created_at AS createdAt, s.score FROM ("
+            + "SELECT p.id, p.title, p.author, p.created_at, ts_rank(p.search_vector, q)::float8 "
+            + "* power(0.5, extract(epoch FROM (CAST(:asOf AS timestamp) - p.created_at)) / (86400 * :halfLifeDays)) AS score "
+            + "FROM posts p, websearch_to_tsquery('english', :query) q "
+            + "WHERE p.search_vector @@ q AND p.published AND p.created_at <= CAST(:asOf AS timestamp)) s "
+            + "WHERE (s.score, s.id) < (:afterScore, :afterId) "
+            + "ORDER BY s.score DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query, @Param("asOf") LocalDateTime asOf,
+            @Param("halfLifeDays") double halfLifeDays, @Param("afterScore") double afterScore,
+            @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Scheduled posts due before :until, in publish order, for the publisher's
+    // timing wheel; read off idx_posts_published_publish_at_id.
+    @Query("SELECT p.id AS id, p.publishAt AS publishAt FROM Post p WHERE p.published = false "
+            + "AND p.publishAt < :until AND (p.publishAt, p.id) > (:afterAt, :afterId) ORDER BY p.publishAt, p.id")
+    List<PendingPublish> findPendingPublish(@Param("until") LocalDateTime until,
+            @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId, Limit limit);
+
+    // Publishes those of the posts that are due and still unpublished, and
+    // returns their ids. Only one of several instances racing on a post gets
+    // it back, and a post claimed is published in the same statement, with a
+    // new feed key so it sorts as a post made now.
+    @Transactional
+    @Query(value = "UPDATE posts SET published = true, created_at = :now, version = version + 1, "
+            + "feed_key = nextval('post_feed_seq') "
+            + "WHERE id IN (:ids) AND published = false AND publish_at <= :now RETURNING id", nativeQuery = true)
+    List<Long> claimDue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    interface FeedItem {
+        Long getFeedKey();
+
+        Long getId();
+
+        String getTitle();
+
+        String getAuthor();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface PendingPublish {
+        Long getId();
+
+        LocalDateTime getPublishAt();
+    }
+
+    interface SearchHit {
+        Long getId();
+
+        String getTitle();
+
+        String getAuthor();
+
+        LocalDateTime getCreatedAt();
+
+        double getScore();
+    }
+}
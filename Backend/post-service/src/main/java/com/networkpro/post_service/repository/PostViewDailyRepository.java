@@ -0,0 +1,28 @@
+package com.networkpro.post_service.repository;
+
+import com.networkpro.post_service.model.PostViewDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PostViewDailyRepository extends JpaRepository<PostViewDaily, PostViewDaily.Key> {
+    List<PostViewDaily> findByPostId(Long postId);
+
+    // Daily rows of every post by the author within [from, to].
+    @Query("SELECT v FROM PostViewDaily v WHERE v.day BETWEEN :from AND :to "
+            + "AND v.postId IN (SELECT p.id FROM Post p WHERE p.author = :author)")
+    List<PostViewDaily> findByAuthorBetween(@Param("author") String author, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostViewDaily v WHERE v.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -0,0 +1,88 @@
+package com.networkpro.post_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Links posts written before {@code author_id} existed, or created without
+ * one, to their author's user id. Every {@code post.authors.backfill-ms} it
+ * walks the distinct unresolved author names in batches, resolves each batch
+ * through the {@link AuthorDirectory} and sets the id on the matching posts.
+ *
+ * Names are walked in order, so ones that do not resolve are passed over
+ * rather than fetched again; they are retried on the next run. Updates only
+ * touch rows still missing an id, so several instances may run it at once.
+ */
+@Component
+public class AuthorBackfill {
+    private static final Logger log = LoggerFactory.getLogger(AuthorBackfill.class);
+
+    private static final String UNRESOLVED_AUTHORS = "SELECT DISTINCT author FROM posts "
+            + "WHERE author_id IS NULL AND author > ? ORDER BY author LIMIT ?";
+    // Bounded per statement so an author with many posts does not hold row
+    // locks on all of them at once. The version bump changes the posts' ETags.
+    private static final String LINK_POSTS = "UPDATE posts SET author_id = ?, version = version + 1 WHERE id IN ("
+            + "SELECT id FROM posts WHERE author = ? AND author_id IS NULL LIMIT ?)";
+
+    private final AuthorDirectory authorDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int rowsPerUpdate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AuthorBackfill(AuthorDirectory authorDirectory, JdbcTemplate jdbcTemplate,
+            @Value("${post.authors.backfill-batch-size:200}") int batchSize,
+            @Value("${post.authors.backfill-rows-per-update:1000}") int rowsPerUpdate) {
+        this.authorDirectory = authorDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.rowsPerUpdate = rowsPerUpdate;
+    }
+
+    @Scheduled(fixedDelayString = "${post.authors.backfill-ms:60000}",
+            initialDelayString = "${post.authors.backfill-initial-delay-ms:10000}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            String after = "";
+            long linked = 0;
+            while (true) {
+                List<String> names = jdbcTemplate.queryForList(UNRESOLVED_AUTHORS, String.class, after, batchSize);
+                if (names.isEmpty()) {
+                    break;
+                }
+                for (Map.Entry<String, Long> entry : authorDirectory.resolve(names).entrySet()) {
+                    linked += link(entry.getKey(), entry.getValue());
+                }
+                after = names.get(names.size() - 1);
+            }
+            if (linked > 0) {
+                log.info("Linked {} posts to their authors' user ids", linked);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Author backfill stopped; it resumes on the next run", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long link(String author, Long userId) {
+        long linked = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(LINK_POSTS, userId, author, rowsPerUpdate);
+            linked += updated;
+        } while (updated == rowsPerUpdate);
+        return linked;
+    }
+}
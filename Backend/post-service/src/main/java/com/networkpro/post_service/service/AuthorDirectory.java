@@ -0,0 +1,13 @@
+package com.networkpro.post_service.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Resolves the author names stored on posts to user ids. The users live in
+ * user-service; {@link UserServiceAuthorDirectory} asks it over HTTP.
+ */
+public interface AuthorDirectory {
+    // Names that do not resolve are left out of the result.
+    Map<String, Long> resolve(Collection<String> names);
+}
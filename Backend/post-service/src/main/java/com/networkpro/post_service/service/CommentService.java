@@ -0,0 +1,23 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.CommentPageDTO;
+import com.networkpro.post_service.dto.CommentRequestDTO;
+import com.networkpro.post_service.model.Comment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CommentService {
+    Comment addComment(Long postId, CommentRequestDTO request);
+
+    CommentPageDTO getComments(Long postId, String cursor, int size);
+
+    CommentPageDTO getReplies(Long postId, Long commentId, String cursor, int size);
+
+    Map<Long, List<Comment>> getPreviews(Collection<Long> postIds, int perPost);
+
+    void deleteComment(Long postId, Long commentId);
+
+    void deleteCommentsOfPost(Long postId);
+}
@@ -0,0 +1,165 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.CommentPageDTO;
+import com.networkpro.post_service.dto.CommentRequestDTO;
+import com.networkpro.post_service.exception.CommentNotFoundException;
+import com.networkpro.post_service.exception.PostNotFoundException;
+import com.networkpro.post_service.model.Comment;
+import com.networkpro.post_service.model.PostCounter;
+import com.networkpro.post_service.repository.CommentRepository;
+import com.networkpro.post_service.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CommentServiceImpl implements CommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_PREVIEW_POSTS = 100;
+    private static final int MAX_PREVIEW_COMMENTS = 10;
+    // A comment takes more effort than a reaction, so it counts for more in trending.
+    private static final long COMMENT_WEIGHT = 2;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCounters postCounters;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Override
+    @Transactional
+    public Comment addComment(Long postId, CommentRequestDTO request) {
+        // Scheduled posts are not out yet.
+        if (!postRepository.existsByIdAndPublishedTrue(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+        if (request.getContent() != null && request.getContent().length() > CommentRequestDTO.MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("A comment can be at most " + CommentRequestDTO.MAX_CONTENT_LENGTH
+                    + " characters long");
+        }
+        Comment comment = new Comment();
+        comment.setPostId(postId);
+        comment.setAuthor(request.getAuthor());
+        comment.setContent(request.getContent());
+        comment.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        if (request.getParentId() != null) {
+            Comment parent = getComment(postId, request.getParentId());
+            if (parent.getDepth() >= Comment.MAX_DEPTH) {
+                throw new IllegalArgumentException("Replies can be nested at most " + Comment.MAX_DEPTH + " deep");
+            }
+            comment.setParentId(parent.getId());
+            comment.setRootId(parent.getRootId() == null ? parent.getId() : parent.getRootId());
+            comment.setDepth(parent.getDepth() + 1);
+            commentRepository.addReplies(parent.getId(), 1);
+        }
+        Comment saved = commentRepository.save(comment);
+        postCounters.add(postId, PostCounter.COMMENTS, 1);
+        trendingService.recordPostEngagement(postId, COMMENT_WEIGHT);
+        return saved;
+    }
+
+    @Override
+    public CommentPageDTO getComments(Long postId, String cursor, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long before = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : decodeCursor(cursor);
+        // One extra row tells whether another page exists without a count query.
+        return toPage(commentRepository.findTopLevel(postId, before, Limit.of(size + 1)), size);
+    }
+
+    @Override
+    public CommentPageDTO getReplies(Long postId, Long commentId, String cursor, int size) {
+        Comment root = getComment(postId, commentId);
+        if (root.getRootId() != null) {
+            throw new IllegalArgumentException("Replies are listed per thread; pass the top-level comment id");
+        }
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long after = cursor == null || cursor.isBlank() ? 0 : decodeCursor(cursor);
+        return toPage(commentRepository.findThread(root.getId(), after, Limit.of(size + 1)), size);
+    }
+
+    @Override
+    public Map<Long, List<Comment>> getPreviews(Collection<Long> postIds, int perPost) {
+        if (postIds.size() > MAX_PREVIEW_POSTS) {
+            throw new IllegalArgumentException("At most " + MAX_PREVIEW_POSTS + " posts per request");
+        }
+        perPost = Math.max(1, Math.min(perPost, MAX_PREVIEW_COMMENTS));
+        Map<Long, List<Comment>> previews = new LinkedHashMap<>();
+        postIds.forEach(postId -> previews.put(postId, new ArrayList<>()));
+        if (postIds.isEmpty()) {
+            return previews;
+        }
+        for (Comment comment : commentRepository.findPreviews(postIds, perPost)) {
+            previews.get(comment.getPostId()).add(comment);
+        }
+        return previews;
+    }
+
+    // Deleting a comment takes its replies with it.
+    @Override
+    @Transactional
+    public void deleteComment(Long postId, Long commentId) {
+        Comment comment = getComment(postId, commentId);
+        int removed = 1;
+        if (comment.getDepth() == 0) {
+            removed += commentRepository.deleteByRootId(comment.getId());
+        } else if (comment.getDepth() < Comment.MAX_DEPTH) {
+            removed += commentRepository.deleteByParentId(comment.getId());
+        }
+        if (comment.getParentId() != null) {
+            commentRepository.addReplies(comment.getParentId(), -1);
+        }
+        commentRepository.delete(comment);
+        postCounters.add(postId, PostCounter.COMMENTS, -removed);
+    }
+
+    @Override
+    @Transactional
+    public void deleteCommentsOfPost(Long postId) {
+        commentRepository.deleteByPostId(postId);
+    }
+
+    private Comment getComment(Long postId, Long commentId) {
+        return commentRepository.findById(commentId)
+                .filter(comment -> comment.getPostId().equals(postId))
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found with id: " + commentId));
+    }
+
+    private static CommentPageDTO toPage(List<Comment> comments, int size) {
+        boolean hasMore = comments.size() > size;
+        if (hasMore) {
+            comments = comments.subList(0, size);
+        }
+        String nextCursor = hasMore ? encodeCursor(comments.get(comments.size() - 1).getId()) : null;
+        return new CommentPageDTO(comments, nextCursor, hasMore);
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    private static String encodeCursor(long commentId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(commentId).getBytes(StandardCharsets.UTF_8));
+    }
+}
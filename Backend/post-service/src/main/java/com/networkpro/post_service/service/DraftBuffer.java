@@ -0,0 +1,131 @@
+package com.networkpro.post_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces draft autosaves. Each save replaces the draft's pending edit in
+ * memory, and every {@code post.drafts.window-ms} the latest edit of each
+ * draft is written in one batch, so a burst of autosaves costs one row
+ * update. Pending edits are also written on shutdown, and taken out by
+ * publishing.
+ *
+ * Pending edits live in the memory of the instance that received them, and
+ * publishing only sees the edits of its own instance. With several instances,
+ * all requests for a draft have to be routed to the same one, e.g. by hashing
+ * the draft id at the load balancer; an edit buffered elsewhere would be
+ * written after the draft is gone and dropped (logged as orphaned).
+ *
+ * Metrics: post.drafts.saves counts autosaves received, post.drafts.writes
+ * rows written, and post.drafts.coalesced the saves replaced before being
+ * written, i.e. the writes saved.
+ */
+@Component
+public class DraftBuffer {
+    private static final Logger log = LoggerFactory.getLogger(DraftBuffer.class);
+
+    // Drafts deleted or published meanwhile match no row and are skipped.
+    private static final String WRITE_DRAFT = "UPDATE post_draft SET title = ?, content = ?, updated_at = ? "
+            + "WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, Edit> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter saves;
+    private final Counter writes;
+    private final Counter coalesced;
+
+    public DraftBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.saves = meterRegistry.counter("post.drafts.saves");
+        this.writes = meterRegistry.counter("post.drafts.writes");
+        this.coalesced = meterRegistry.counter("post.drafts.coalesced");
+        Gauge.builder("post.drafts.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void save(Long draftId, String title, String content) {
+        saves.increment();
+        if (pending.put(draftId, new Edit(title, content, LocalDateTime.now())) != null) {
+            coalesced.increment();
+        }
+    }
+
+    public boolean isPending(Long draftId) {
+        return pending.containsKey(draftId);
+    }
+
+    // The unwritten edit of a draft, or null.
+    public Edit peek(Long draftId) {
+        return pending.get(draftId);
+    }
+
+    // Removes and returns the unwritten edit of a draft, or null. Waits for a
+    // flush in progress, so the draft's row is current once this returns.
+    public synchronized Edit take(Long draftId) {
+        return pending.remove(draftId);
+    }
+
+    // Puts back an edit taken by a publish that failed, unless a newer save
+    // has replaced it meanwhile.
+    public void restore(Long draftId, Edit edit) {
+        pending.putIfAbsent(draftId, edit);
+    }
+
+    @Scheduled(fixedDelayString = "${post.drafts.window-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, Edit> drained = new HashMap<>();
+        for (Long draftId : pending.keySet()) {
+            Edit edit = pending.remove(draftId);
+            if (edit != null) {
+                drained.put(draftId, edit);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        drained.forEach((draftId, edit) -> batch.add(new Object[]{edit.title(), edit.content(),
+                Timestamp.valueOf(edit.savedAt()), draftId}));
+        try {
+            int[] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(WRITE_DRAFT, batch));
+            writes.increment(batch.size());
+            long orphaned = Arrays.stream(updated).filter(count -> count == 0).count();
+            if (orphaned > 0) {
+                log.warn("Dropped {} orphaned draft edits; drafts deleted or published, possibly by another "
+                        + "instance", orphaned);
+            }
+        } catch (RuntimeException ex) {
+            // Put back the edits that no newer save has replaced meanwhile.
+            log.warn("Writing {} drafts failed; retrying on the next flush", drained.size(), ex);
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public record Edit(String title, String content, LocalDateTime savedAt) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.DraftDTO;
+import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.model.PostDraft;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DraftService {
+    PostDraft createDraft(DraftDTO draftDTO);
+
+    // Coalesced: the draft's row is only brought up to date once per window.
+    void autosave(Long draftId, DraftDTO draftDTO);
+
+    // Includes edits not written yet.
+    PostDraft getDraft(Long draftId);
+
+    List<PostDraft> getDraftsByAuthor(String author);
+
+    // Creates the post, scheduled when publishAt is in the future, and
+    // deletes the draft.
+    Post publishDraft(Long draftId, LocalDateTime publishAt);
+
+    void deleteDraft(Long draftId);
+}
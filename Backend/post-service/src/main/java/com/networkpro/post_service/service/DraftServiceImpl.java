@@ -0,0 +1,112 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.DraftDTO;
+import com.networkpro.post_service.dto.PostDTO;
+import com.networkpro.post_service.exception.DraftNotFoundException;
+import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.model.PostDraft;
+import com.networkpro.post_service.repository.PostDraftRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class DraftServiceImpl implements DraftService {
+    @Autowired
+    private PostDraftRepository postDraftRepository;
+
+    @Autowired
+    private DraftBuffer draftBuffer;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public PostDraft createDraft(DraftDTO draftDTO) {
+        LocalDateTime now = LocalDateTime.now();
+        return postDraftRepository.save(new PostDraft(null, draftDTO.getAuthor(), draftDTO.getAuthorId(),
+                draftDTO.getTitle(), draftDTO.getContent(), now, now));
+    }
+
+    // A draft with an edit pending was there at its last save, so only the
+    // first save of a window checks that the draft exists.
+    @Override
+    public void autosave(Long draftId, DraftDTO draftDTO) {
+        if (!draftBuffer.isPending(draftId) && !postDraftRepository.existsById(draftId)) {
+            throw notFound(draftId);
+        }
+        draftBuffer.save(draftId, draftDTO.getTitle(), draftDTO.getContent());
+    }
+
+    @Override
+    public PostDraft getDraft(Long draftId) {
+        return withPendingEdit(postDraftRepository.findById(draftId).orElseThrow(() -> notFound(draftId)));
+    }
+
+    @Override
+    public List<PostDraft> getDraftsByAuthor(String author) {
+        return postDraftRepository.findByAuthorOrderByUpdatedAtDesc(author).stream()
+                .map(this::withPendingEdit)
+                .toList();
+    }
+
+    // The post is created and the draft deleted in one transaction; if that
+    // fails, the draft is left as it was and its pending edit goes back into
+    // the buffer. Only edits buffered on this instance are seen; see
+    // DraftBuffer.
+    @Override
+    public Post publishDraft(Long draftId, LocalDateTime publishAt) {
+        DraftBuffer.Edit edit = draftBuffer.take(draftId);
+        Post post;
+        try {
+            post = transactionTemplate.execute(status -> {
+                PostDraft draft = postDraftRepository.findById(draftId).orElseThrow(() -> notFound(draftId));
+                if (edit != null) {
+                    apply(draft, edit);
+                }
+                Post created = postService.createPost(new PostDTO(draft.getTitle(), draft.getContent(),
+                        draft.getAuthor(), draft.getAuthorId(), publishAt));
+                postDraftRepository.delete(draft);
+                return created;
+            });
+        } catch (RuntimeException ex) {
+            if (edit != null) {
+                draftBuffer.restore(draftId, edit);
+            }
+            throw ex;
+        }
+        // A save that raced the publish has nothing left to update.
+        draftBuffer.take(draftId);
+        return post;
+    }
+
+    @Override
+    public void deleteDraft(Long draftId) {
+        draftBuffer.take(draftId);
+        postDraftRepository.deleteById(draftId);
+    }
+
+    private PostDraft withPendingEdit(PostDraft draft) {
+        DraftBuffer.Edit edit = draftBuffer.peek(draft.getId());
+        if (edit != null) {
+            apply(draft, edit);
+        }
+        return draft;
+    }
+
+    private static void apply(PostDraft draft, DraftBuffer.Edit edit) {
+        draft.setTitle(edit.title());
+        draft.setContent(edit.content());
+        draft.setUpdatedAt(edit.savedAt());
+    }
+
+    private static DraftNotFoundException notFound(Long draftId) {
+        return new DraftNotFoundException("Draft not found with id: " + draftId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.PostPageDTO;
+import com.networkpro.post_service.model.Post;
+
+public interface FeedService {
+    PostPageDTO getFeed(String user, String cursor, int size);
+
+    void onPostCreated(Post post);
+
+    void follow(String user, String author);
+
+    void unfollow(String user, String author);
+}
@@ -0,0 +1,176 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.PostPageDTO;
+import com.networkpro.post_service.dto.PostSummaryDTO;
+import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Home feeds with hybrid fan-out. A new post by an author with at most
+ * {@code post.feed.fanout-threshold} followers is pushed into the cached
+ * timelines of those followers; posts by authors above the threshold are
+ * never fanned out and are merged in from the database when a feed is read.
+ * Feeds are ordered by feed key rather than post id: a scheduled post keeps
+ * the id it was created with, but draws a new key when it is published.
+ */
+@Service
+public class FeedServiceImpl implements FeedService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private TimelineCache timelineCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${post.feed.fanout-threshold:10000}")
+    private int fanoutThreshold;
+
+    @PostConstruct
+    public void initialize() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS post_feed_seq");
+        jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN feed_key SET DEFAULT nextval('post_feed_seq')");
+    }
+
+    @Override
+    public PostPageDTO getFeed(String user, String cursor, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long before = decodeCursor(cursor);
+        List<String> fannedOut = new ArrayList<>();
+        List<String> pulled = new ArrayList<>();
+        for (String author : followGraph.followingOf(user)) {
+            (isFannedOut(author) ? fannedOut : pulled).add(author);
+        }
+
+        // One extra key tells whether another page exists.
+        int wanted = size + 1;
+        TreeSet<Long> keys = new TreeSet<>(Comparator.reverseOrder());
+        TimelineCache.Timeline timeline = timelineCache.get(user);
+        if (timeline == null) {
+            timeline = buildTimeline(user, fannedOut);
+        }
+        for (long key : timeline.idsBefore(before, wanted)) {
+            keys.add(key);
+        }
+        if (keys.size() < wanted && timeline.isTruncated() && !fannedOut.isEmpty()) {
+            long from = keys.isEmpty() ? before : keys.last();
+            keys.addAll(postRepository.findFeedKeysByAuthors(fannedOut, from, Limit.of(wanted - keys.size())));
+        }
+        if (!pulled.isEmpty()) {
+            keys.addAll(postRepository.findFeedKeysByAuthors(pulled, before, Limit.of(wanted)));
+        }
+
+        List<Long> pageKeys = keys.stream().limit(wanted).collect(Collectors.toList());
+        boolean hasMore = pageKeys.size() > size;
+        if (hasMore) {
+            pageKeys = pageKeys.subList(0, size);
+        }
+        Map<Long, PostRepository.FeedItem> items = postRepository.findFeedItemsByFeedKeyIn(pageKeys).stream()
+                .collect(Collectors.toMap(PostRepository.FeedItem::getFeedKey, Function.identity()));
+        // Posts deleted since they were fanned out are skipped.
+        List<PostSummaryDTO> posts = pageKeys.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(item -> new PostSummaryDTO(item.getId(), item.getTitle(), item.getAuthor(), item.getCreatedAt()))
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeCursor(pageKeys.get(pageKeys.size() - 1)) : null;
+        return new PostPageDTO(posts, nextCursor, hasMore);
+    }
+
+    // Inside a transaction the push waits for the commit; a timeline built in
+    // between reads the post itself or holds the push (see TimelineCache).
+    @Override
+    public void onPostCreated(Post post) {
+        if (!isFannedOut(post.getAuthor())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(post.getAuthor(), post.getFeedKey());
+                }
+            });
+        } else {
+            fanOut(post.getAuthor(), post.getFeedKey());
+        }
+    }
+
+    private void fanOut(String author, long feedKey) {
+        for (String follower : followGraph.followersOf(author)) {
+            timelineCache.push(follower, feedKey);
+        }
+    }
+
+    // The user's timeline no longer matches who they follow, so it is rebuilt
+    // on the next read.
+    @Override
+    public void follow(String user, String author) {
+        if (followGraph.follow(user, author)) {
+            timelineCache.invalidate(user);
+        }
+    }
+
+    @Override
+    public void unfollow(String user, String author) {
+        if (followGraph.unfollow(user, author)) {
+            timelineCache.invalidate(user);
+        }
+    }
+
+    private boolean isFannedOut(String author) {
+        return followGraph.followerCount(author) <= fanoutThreshold;
+    }
+
+    private TimelineCache.Timeline buildTimeline(String user, List<String> fannedOut) {
+        TimelineCache.Build pending = timelineCache.beginBuild(user);
+        if (fannedOut.isEmpty()) {
+            return timelineCache.build(user, pending, List.of(), false);
+        }
+        int capacity = timelineCache.capacity();
+        List<Long> recent = postRepository.findFeedKeysByAuthors(fannedOut, Long.MAX_VALUE,
+                Limit.of(capacity + 1));
+        return timelineCache.build(user, pending, recent, recent.size() > capacity);
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    private static String encodeCursor(long feedKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(feedKey).getBytes(StandardCharsets.UTF_8));
+    }
+}
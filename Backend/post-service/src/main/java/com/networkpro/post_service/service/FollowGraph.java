@@ -0,0 +1,20 @@
+package com.networkpro.post_service.service;
+
+import java.util.Collection;
+
+/**
+ * Who follows whom, keyed by author name. post-service does not own the
+ * connection data; {@link InMemoryFollowGraph} stands in until a client for
+ * the user service replaces it.
+ */
+public interface FollowGraph {
+    Collection<String> followersOf(String author);
+
+    Collection<String> followingOf(String user);
+
+    int followerCount(String author);
+
+    boolean follow(String user, String author);
+
+    boolean unfollow(String user, String author);
+}
@@ -0,0 +1,35 @@
+package com.networkpro.post_service.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Pulls #hashtags out of post text: a letter followed by letters, digits or
+// underscores, not preceded by a word character (so "a#b" and URL fragments
+// are left alone). Tags are lower-cased so #Java and #java count together.
+final class HashtagExtractor {
+    private static final int MAX_TAG_LENGTH = 50;
+    private static final Pattern HASHTAG = Pattern.compile("(?<![\\p{L}\\p{N}_&/])#(\\p{L}[\\p{L}\\p{N}_]*)");
+
+    private HashtagExtractor() {
+    }
+
+    static Set<String> extract(String... texts) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            Matcher matcher = HASHTAG.matcher(text);
+            while (matcher.find()) {
+                String tag = matcher.group(1);
+                if (tag.length() <= MAX_TAG_LENGTH) {
+                    tags.add(tag.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,86 @@
+package com.networkpro.post_service.service;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter with 2^11 one-byte registers: 2 KB whatever
+ * the number of distinct values, with a standard error of about 2.3%.
+ * Sketches merge by taking the larger of each register, so daily sketches
+ * can be unioned into the distinct count of any range of days.
+ */
+final class HyperLogLog {
+    static final int PRECISION = 11;
+    static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    // Sketches stored with another size start over rather than mixing.
+    static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes != null && bytes.length == REGISTERS) {
+            System.arraycopy(bytes, 0, sketch.registers, 0, REGISTERS);
+        }
+        return sketch;
+    }
+
+    synchronized void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit caps the rank at 64 - PRECISION + 1.
+        long rest = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    synchronized void merge(HyperLogLog other) {
+        byte[] theirs = other.toBytes();
+        for (int i = 0; i < REGISTERS; i++) {
+            if (theirs[i] > registers[i]) {
+                registers[i] = theirs[i];
+            }
+        }
+    }
+
+    synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are empty.
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    synchronized byte[] toBytes() {
+        return Arrays.copyOf(registers, REGISTERS);
+    }
+
+    // 64-bit FNV-1a, finished with the MurmurHash3 mixer so the high bits
+    // that pick the register are as well spread as the low ones.
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
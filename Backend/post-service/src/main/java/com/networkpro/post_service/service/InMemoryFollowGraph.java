@@ -0,0 +1,41 @@
+package com.networkpro.post_service.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Local stand-in for the follow data; not persisted.
+@Component
+public class InMemoryFollowGraph implements FollowGraph {
+    private final ConcurrentHashMap<String, Set<String>> followers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> following = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<String> followersOf(String author) {
+        return followers.getOrDefault(author, Set.of());
+    }
+
+    @Override
+    public Collection<String> followingOf(String user) {
+        return following.getOrDefault(user, Set.of());
+    }
+
+    @Override
+    public int followerCount(String author) {
+        return followersOf(author).size();
+    }
+
+    @Override
+    public boolean follow(String user, String author) {
+        following.computeIfAbsent(user, key -> ConcurrentHashMap.newKeySet()).add(author);
+        return followers.computeIfAbsent(author, key -> ConcurrentHashMap.newKeySet()).add(user);
+    }
+
+    @Override
+    public boolean unfollow(String user, String author) {
+        following.getOrDefault(user, Set.of()).remove(author);
+        return followers.getOrDefault(author, Set.of()).remove(user);
+    }
+}
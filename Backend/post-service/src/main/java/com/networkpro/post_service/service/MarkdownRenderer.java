@@ -0,0 +1,43 @@
+package com.networkpro.post_service.service;
+
+import org.commonmark.Extension;
+import org.commonmark.ext.autolink.AutolinkExtension;
+import org.commonmark.node.Link;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+
+import java.util.List;
+
+// Renders post content, written in Markdown, to HTML. Raw HTML in the
+// source is escaped, unsafe link schemes are dropped, bare URLs become
+// links and every link is marked nofollow, as the content is user input.
+// Line breaks are kept, as people type posts rather than documents.
+//
+// VERSION is stored with each rendered post; bump it whenever the output
+// changes (options, extensions, library upgrades) and posts are re-rendered
+// as they are read.
+final class MarkdownRenderer {
+    static final int VERSION = 1;
+
+    private static final List<Extension> EXTENSIONS = List.of(AutolinkExtension.create());
+    // Both are immutable and safe to share between threads.
+    private static final Parser PARSER = Parser.builder().extensions(EXTENSIONS).build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder()
+            .extensions(EXTENSIONS)
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .softbreak("<br />\n")
+            .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                if (node instanceof Link) {
+                    attributes.put("rel", "nofollow ugc noopener");
+                }
+            })
+            .build();
+
+    private MarkdownRenderer() {
+    }
+
+    static String render(String markdown) {
+        return markdown == null ? "" : RENDERER.render(PARSER.parse(markdown));
+    }
+}
@@ -0,0 +1,172 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.MediaStatus;
+import com.networkpro.post_service.model.PostMedia;
+import com.networkpro.post_service.repository.PostMediaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the thumbnail, feed and full size derivatives of uploaded images
+ * on a fixed pool of {@code post.media.workers} threads behind a queue of
+ * {@code post.media.queue-size}. Uploads only enqueue; when the queue is
+ * full the media stays PENDING and is picked up by the sweep every
+ * {@code post.media.sweep-seconds}, which also resumes work cut short by a
+ * restart. Rendering is deterministic and files are content-addressed, so
+ * two instances rendering the same media write the same files.
+ *
+ * Metrics: post.media.rendered and post.media.failed count media by
+ * outcome, post.media.reused the renders skipped because the same original
+ * had been rendered before, post.media.rejected submissions left to the
+ * sweep, and post.media.render times a render.
+ */
+@Component
+public class MediaPipeline {
+    private static final Logger log = LoggerFactory.getLogger(MediaPipeline.class);
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final PostMediaRepository postMediaRepository;
+    private final MediaStore mediaStore;
+    private final ThreadPoolExecutor executor;
+    // Ids queued or being rendered here, so the sweep does not queue them twice.
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int thumbnailSide;
+    private final int feedSide;
+    private final int fullSide;
+    private final long maxPixels;
+    private final Counter rendered;
+    private final Counter failed;
+    private final Counter reused;
+    private final Counter rejected;
+    private final Timer renderTime;
+
+    public MediaPipeline(PostMediaRepository postMediaRepository, MediaStore mediaStore, MeterRegistry meterRegistry,
+            @Value("${post.media.workers:2}") int workers,
+            @Value("${post.media.queue-size:1000}") int queueSize,
+            @Value("${post.media.thumbnail-px:200}") int thumbnailSide,
+            @Value("${post.media.feed-px:720}") int feedSide,
+            @Value("${post.media.full-px:1600}") int fullSide,
+            @Value("${post.media.max-pixels:50000000}") long maxPixels) {
+        this.postMediaRepository = postMediaRepository;
+        this.mediaStore = mediaStore;
+        this.thumbnailSide = thumbnailSide;
+        this.feedSide = feedSide;
+        this.fullSide = fullSide;
+        this.maxPixels = maxPixels;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "media-render-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rendered = meterRegistry.counter("post.media.rendered");
+        this.failed = meterRegistry.counter("post.media.failed");
+        this.reused = meterRegistry.counter("post.media.reused");
+        this.rejected = meterRegistry.counter("post.media.rejected");
+        this.renderTime = meterRegistry.timer("post.media.render");
+        Gauge.builder("post.media.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    // Never blocks the caller.
+    public void submit(Long mediaId) {
+        if (!inFlight.add(mediaId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(mediaId));
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(mediaId);
+            rejected.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.media.sweep-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void sweep() {
+        Long afterId = 0L;
+        List<Long> page;
+        do {
+            int room = executor.getQueue().remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            page = postMediaRepository.findIdsByStatusAfter(MediaStatus.PENDING, afterId, Limit.of(room));
+            page.forEach(this::submit);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1);
+            }
+        } while (!page.isEmpty());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Whatever was not rendered stays PENDING for the next sweep.
+        executor.shutdownNow();
+    }
+
+    private void render(Long mediaId) {
+        try {
+            PostMedia media = postMediaRepository.findById(mediaId).orElse(null);
+            if (media == null || media.getStatus() != MediaStatus.PENDING) {
+                return;
+            }
+            Optional<PostMedia> done = postMediaRepository.findFirstByOriginalShaAndStatus(media.getOriginalSha(),
+                    MediaStatus.READY);
+            if (done.isPresent()) {
+                PostMedia same = done.get();
+                postMediaRepository.markReady(mediaId, same.getWidth(), same.getHeight(), same.getDerivativeFormat(),
+                        same.getThumbnailSha(), same.getFeedSha(), same.getFullSha());
+                reused.increment();
+                return;
+            }
+            renderTime.recordCallable(() -> {
+                ImageResizer.Decoded decoded = ImageResizer.decode(mediaStore.resolve(media.getOriginalSha()),
+                        maxPixels, fullSide);
+                // Each size from the one above it, so each step starts small.
+                BufferedImage full = ImageResizer.fit(decoded.image(), fullSide);
+                BufferedImage feed = ImageResizer.fit(full, feedSide);
+                BufferedImage thumbnail = ImageResizer.fit(feed, thumbnailSide);
+                postMediaRepository.markReady(mediaId, decoded.width(), decoded.height(), ImageResizer.format(full),
+                        mediaStore.store(ImageResizer.encode(thumbnail, JPEG_QUALITY)),
+                        mediaStore.store(ImageResizer.encode(feed, JPEG_QUALITY)),
+                        mediaStore.store(ImageResizer.encode(full, JPEG_QUALITY)));
+                return null;
+            });
+            rendered.increment();
+        } catch (DataAccessException ex) {
+            // Not the image's fault; still PENDING, so the sweep retries it.
+            log.warn("Rendering media {} failed; retrying on a later sweep", mediaId, ex);
+        } catch (Exception ex) {
+            log.warn("Rendering media {} failed", mediaId, ex);
+            failed.increment();
+            try {
+                postMediaRepository.markFailed(mediaId);
+            } catch (RuntimeException markEx) {
+                log.warn("Marking media {} as failed failed; the sweep retries it", mediaId, markEx);
+            }
+        } finally {
+            inFlight.remove(mediaId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.MediaDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface MediaService {
+    // Stores the original and returns at once; derivatives follow in the background.
+    MediaDTO upload(Long postId, String contentType, InputStream content) throws IOException;
+
+    List<MediaDTO> getMediaOfPost(Long postId);
+
+    void deleteMedia(Long postId, Long mediaId);
+
+    void deleteMediaOfPost(Long postId);
+
+    // A media file by its URL name, `<sha256>.<format>`.
+    MediaFile getFile(String name);
+
+    record MediaFile(Path path, String sha256, String contentType) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.MediaDTO;
+import com.networkpro.post_service.exception.MediaNotFoundException;
+import com.networkpro.post_service.exception.PostNotFoundException;
+import com.networkpro.post_service.model.MediaStatus;
+import com.networkpro.post_service.model.PostMedia;
+import com.networkpro.post_service.repository.PostMediaRepository;
+import com.networkpro.post_service.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class MediaServiceImpl implements MediaService {
+    // Formats the JDK can decode without plugins.
+    private static final Map<String, String> FORMATS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif");
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png|gif)");
+    // Leading bytes each format must start with; the Content-Type of an
+    // upload is only the client's claim.
+    private static final Map<String, List<byte[]>> SIGNATURES = Map.of(
+            "jpg", List.of(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+            "png", List.of(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+            "gif", List.of("GIF87a".getBytes(StandardCharsets.US_ASCII),
+                    "GIF89a".getBytes(StandardCharsets.US_ASCII)));
+    private static final int SIGNATURE_BYTES = 8;
+
+    @Autowired
+    private PostMediaRepository postMediaRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private MediaPipeline mediaPipeline;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${post.media.max-bytes:20971520}")
+    private long maxBytes;
+
+    @Value("${post.media.max-per-post:10}")
+    private int maxPerPost;
+
+    @Override
+    public MediaDTO upload(Long postId, String contentType, InputStream content) throws IOException {
+        String format = contentType != null
+                ? FORMATS.get(contentType.split(";")[0].trim().toLowerCase(Locale.ROOT)) : null;
+        if (format == null) {
+            throw new IllegalArgumentException("Content-Type must be one of " + FORMATS.keySet());
+        }
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+        if (postMediaRepository.countByPostId(postId) >= maxPerPost) {
+            throw new IllegalArgumentException("A post can have at most " + maxPerPost + " images");
+        }
+        BufferedInputStream in = new BufferedInputStream(content);
+        requireSignature(in, format);
+        String sha = mediaStore.store(in, maxBytes);
+        PostMedia media = new PostMedia();
+        media.setPostId(postId);
+        media.setOriginalSha(sha);
+        media.setOriginalFormat(format);
+        media.setSize(Files.size(mediaStore.resolve(sha)));
+        media.setStatus(MediaStatus.PENDING);
+        media.setCreatedAt(LocalDateTime.now());
+        PostMedia saved = postMediaRepository.save(media);
+        meterRegistry.counter("post.media.uploads").increment();
+        // Committed already, so the worker is sure to find the row.
+        mediaPipeline.submit(saved.getId());
+        return toDTO(saved);
+    }
+
+    @Override
+    public List<MediaDTO> getMediaOfPost(Long postId) {
+        return postMediaRepository.findByPostIdOrderByIdAsc(postId).stream().map(MediaServiceImpl::toDTO).toList();
+    }
+
+    @Override
+    public void deleteMedia(Long postId, Long mediaId) {
+        PostMedia media = postMediaRepository.findById(mediaId)
+                .filter(found -> found.getPostId().equals(postId))
+                .orElseThrow(() -> new MediaNotFoundException("Media not found with id: " + mediaId));
+        postMediaRepository.delete(media);
+    }
+
+    // Rows only: the files are content-addressed and may be shared with
+    // other posts, and their URLs may still be cached by clients.
+    @Override
+    public void deleteMediaOfPost(Long postId) {
+        postMediaRepository.deleteByPostId(postId);
+    }
+
+    @Override
+    public MediaFile getFile(String name) {
+        Matcher matcher = FILE_NAME.matcher(name);
+        if (!matcher.matches()) {
+            throw new MediaNotFoundException("Media not found: " + name);
+        }
+        String sha = matcher.group(1);
+        Path path = mediaStore.resolve(sha);
+        if (!Files.isRegularFile(path) || isFailedOriginal(sha)) {
+            throw new MediaNotFoundException("Media not found: " + name);
+        }
+        return new MediaFile(path, matcher.group(1), CONTENT_TYPES.get(matcher.group(2)));
+    }
+
+    // An original that could not be decoded is not served, unless another
+    // upload of the same file is still good.
+    private boolean isFailedOriginal(String sha) {
+        return postMediaRepository.existsByOriginalShaAndStatus(sha, MediaStatus.FAILED)
+                && !postMediaRepository.existsByOriginalShaAndStatusNot(sha, MediaStatus.FAILED);
+    }
+
+    private static void requireSignature(BufferedInputStream in, String format) throws IOException {
+        in.mark(SIGNATURE_BYTES);
+        byte[] head = in.readNBytes(SIGNATURE_BYTES);
+        in.reset();
+        for (byte[] signature : SIGNATURES.get(format)) {
+            if (head.length >= signature.length
+                    && Arrays.equals(head, 0, signature.length, signature, 0, signature.length)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Image content is not " + format.toUpperCase(Locale.ROOT));
+    }
+
+    // Failed media get no URLs at all; pending ones point at the original.
+    private static MediaDTO toDTO(PostMedia media) {
+        if (media.getStatus() == MediaStatus.FAILED) {
+            return new MediaDTO(media.getId(), media.getPostId(), media.getStatus(), null, null, null, null,
+                    media.getWidth(), media.getHeight());
+        }
+        String original = url(media.getOriginalSha(), media.getOriginalFormat());
+        if (media.getStatus() != MediaStatus.READY) {
+            return new MediaDTO(media.getId(), media.getPostId(), media.getStatus(), original, original, original,
+                    original, media.getWidth(), media.getHeight());
+        }
+        String format = media.getDerivativeFormat();
+        return new MediaDTO(media.getId(), media.getPostId(), media.getStatus(), original,
+                url(media.getThumbnailSha(), format), url(media.getFeedSha(), format), url(media.getFullSha(), format),
+                media.getWidth(), media.getHeight());
+    }
+
+    private static String url(String sha, String format) {
+        return "/api/media/" + sha + "." + format;
+    }
+}
@@ -0,0 +1,115 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.Post;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LRU cache of posts by id for batch reads. It holds detached copies, never
+ * the entities of a persistence context. Writes evict their entry, and
+ * entries expire after {@code post.cache.ttl-seconds}, which bounds how long
+ * a write made through another instance can go unnoticed. Evictions are
+ * guarded against racing reads the same way as in {@link ETagCache}.
+ */
+@Component
+public class PostCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> posts;
+    // Eviction generation and the newest tombstone pushed out of the LRU; see
+    // ETagCache.
+    private long evictions;
+    private long droppedEvictions;
+
+    public PostCache(@Value("${post.cache.size:10000}") int maxEntries,
+            @Value("${post.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.posts = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= PostCache.this.maxEntries) {
+                    return false;
+                }
+                droppedEvictions = Math.max(droppedEvictions, eldest.getValue().evictedAt);
+                return true;
+            }
+        };
+    }
+
+    // The cached posts among `ids`; ids that are not cached are left out.
+    // The posts are shared between callers and must not be modified.
+    public synchronized Map<Long, Post> getAll(Collection<Long> ids) {
+        long now = System.nanoTime();
+        Map<Long, Post> found = new HashMap<>();
+        for (Long id : ids) {
+            Entry entry = posts.get(id);
+            if (entry != null && entry.post != null && now - entry.loadedNanos < ttlNanos) {
+                found.put(id, entry.post);
+            }
+        }
+        return found;
+    }
+
+    // Taken before loading the posts that are then passed to put.
+    public synchronized long generation() {
+        return evictions;
+    }
+
+    // Caches a post loaded by a read that started at `generation`, unless it
+    // was evicted since or a newer version of it is already cached.
+    public void put(Post post, long generation) {
+        Post copy = copyOf(post);
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = posts.get(copy.getId());
+            long evictedAt = entry != null ? entry.evictedAt : droppedEvictions;
+            if (evictedAt > generation
+                    || (entry != null && entry.post != null && entry.post.getVersion() > copy.getVersion())) {
+                return;
+            }
+            posts.put(copy.getId(), new Entry(copy, now, 0));
+        }
+    }
+
+    public void putAll(Collection<Post> loaded, long generation) {
+        loaded.forEach(post -> put(post, generation));
+    }
+
+    // Evicts again once the surrounding transaction commits: a read between
+    // the two evictions can still load the old row, and the second tombstone
+    // keeps it from being cached.
+    public void evict(Long id) {
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        posts.put(id, new Entry(null, 0, ++evictions));
+    }
+
+    private static Post copyOf(Post post) {
+        return new Post(post.getId(), post.getTitle(), post.getContent(), post.getContentHtml(),
+                post.getRenderVersion(), post.getAuthor(), post.getAuthorId(), post.getCreatedAt(),
+                post.getPublishAt(), post.isPublished(), post.getFeedKey(), post.getVersion());
+    }
+
+    // Tombstones have no post and a non-zero evictedAt.
+    private record Entry(Post post, long loadedNanos, long evictedAt) {
+    }
+}
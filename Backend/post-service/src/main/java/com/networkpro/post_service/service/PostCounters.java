@@ -0,0 +1,168 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.PostCounter;
+import com.networkpro.post_service.repository.PostCounterRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Post counters (reactions per type, comments) accumulated in memory and
+ * added to {@code post_counter} in one batch every
+ * {@code post.counters.flush-ms}. A viral post then costs one row update per
+ * flush instead of one per reaction, and the in-memory side is a striped
+ * {@link LongAdder} per counter so concurrent increments do not contend.
+ * Pending counters are grouped by post, so reading or forgetting one post
+ * does not touch the others.
+ *
+ * Totals read here are the flushed value plus what is still pending; a batch
+ * that is being written is briefly missing from them.
+ */
+@Component
+public class PostCounters {
+    private static final Logger log = LoggerFactory.getLogger(PostCounters.class);
+
+    // Only posts that still exist are counted; deltas for a post deleted
+    // before the flush are dropped.
+    private static final String ADD_DELTA = "INSERT INTO post_counter (post_id, name, value) "
+            + "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) "
+            + "ON CONFLICT (post_id, name) DO UPDATE SET value = post_counter.value + excluded.value";
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostCounterRepository postCounterRepository;
+    private final int batchSize;
+
+    public PostCounters(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PostCounterRepository postCounterRepository, @Value("${post.counters.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postCounterRepository = postCounterRepository;
+        this.batchSize = batchSize;
+    }
+
+    public void add(Long postId, String name, long delta) {
+        add(new CounterKey(postId, name), delta);
+    }
+
+    // Flushed totals plus pending deltas, by counter name.
+    public Map<String, Long> totals(Long postId) {
+        Map<String, Long> totals = new HashMap<>();
+        for (PostCounter counter : postCounterRepository.findByPostId(postId)) {
+            totals.put(counter.getName(), counter.getValue());
+        }
+        Map<String, LongAdder> counters = pending.get(postId);
+        if (counters != null) {
+            counters.forEach((name, adder) -> totals.merge(name, adder.sum(), Long::sum));
+        }
+        return totals;
+    }
+
+    public void forget(Long postId) {
+        pending.remove(postId);
+        postCounterRepository.deleteByPostId(postId);
+    }
+
+    public int pendingCounters() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${post.counters.flush-ms:1000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        Map<CounterKey, Long> drained = new HashMap<>();
+        for (Map.Entry<Long, ConcurrentHashMap<String, LongAdder>> post : pending.entrySet()) {
+            Long postId = post.getKey();
+            for (Map.Entry<String, LongAdder> entry : post.getValue().entrySet()) {
+                CounterKey key = new CounterKey(postId, entry.getKey());
+                long delta = entry.getValue().sumThenReset();
+                if (delta == 0) {
+                    retireIfIdle(key);
+                    continue;
+                }
+                drained.put(key, delta);
+                batch.add(new Object[]{postId, key.name(), delta, postId});
+            }
+            retirePostIfIdle(postId);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // One transaction, so a failed flush leaves nothing half applied.
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < batch.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate(ADD_DELTA, batch.subList(from, Math.min(from + batchSize, batch.size())));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Put the deltas back so the next flush retries them.
+            log.warn("Flushing {} post counters failed; retrying on the next flush", drained.size(), ex);
+            drained.forEach(this::add);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(CounterKey key, long delta) {
+        LongAdder adder = pending.computeIfAbsent(key.postId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key.name(), name -> new LongAdder());
+        adder.add(delta);
+        // The flusher may have retired this adder, or the post's whole map,
+        // meanwhile. Whatever neither it nor another writer has drained yet
+        // moves to the live adder; sumThenReset hands every unit to exactly
+        // one of them.
+        if (live(key) != adder) {
+            long stranded = adder.sumThenReset();
+            if (stranded != 0) {
+                add(key, stranded);
+            }
+        }
+    }
+
+    // Counters that stayed at zero for a whole flush are dropped so the map
+    // holds only posts that are being reacted to. Increments that land on the
+    // retired adder after this drain are moved by their writers (see add).
+    private void retireIfIdle(CounterKey key) {
+        Map<String, LongAdder> counters = pending.get(key.postId());
+        LongAdder retired = counters == null ? null : counters.get(key.name());
+        if (retired == null || retired.sum() != 0 || !counters.remove(key.name(), retired)) {
+            return;
+        }
+        long late = retired.sumThenReset();
+        if (late != 0) {
+            add(key, late);
+        }
+    }
+
+    // A post left without counters is dropped too. A writer that picked up its
+    // map just before finds its adder is no longer live and moves the delta.
+    private void retirePostIfIdle(Long postId) {
+        pending.computeIfPresent(postId, (id, counters) -> counters.isEmpty() ? null : counters);
+    }
+
+    private LongAdder live(CounterKey key) {
+        Map<String, LongAdder> counters = pending.get(key.postId());
+        return counters == null ? null : counters.get(key.name());
+    }
+
+    private record CounterKey(Long postId, String name) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.repository.PostHashtagRepository;
+import com.networkpro.post_service.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes scheduled posts when their publishAt comes. Only posts due within
+ * {@code post.publish.horizon-minutes} are held in memory, in a
+ * {@link TimingWheel}; they are loaded from the pending-publish index every
+ * {@code post.publish.load-seconds}, so however many posts are scheduled
+ * further out, the wheel holds only the next stretch of them.
+ *
+ * Every instance loads and fires the same posts. Publishing is one
+ * conditional UPDATE that only the first instance wins, so a post goes out
+ * once; there is no claimed-but-unpublished state for a crash to strand, and
+ * a post whose firing was missed is due on the next load.
+ */
+@Component
+public class PostPublisher {
+    private static final Logger log = LoggerFactory.getLogger(PostPublisher.class);
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final int CLAIM_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final PostHashtagRepository postHashtagRepository;
+    private final FeedService feedService;
+    private final TrendingService trendingService;
+    private final ETagCache etagCache;
+    private final PostCache postCache;
+    private final Duration horizon;
+    private final TimingWheel wheel;
+    // Ids in the wheel, so reloading does not add them twice.
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    public PostPublisher(PostRepository postRepository, PostHashtagRepository postHashtagRepository,
+            FeedService feedService, TrendingService trendingService, ETagCache etagCache, PostCache postCache,
+            @Value("${post.publish.tick-ms:1000}") long tickMillis,
+            @Value("${post.publish.horizon-minutes:10}") long horizonMinutes) {
+        this.postRepository = postRepository;
+        this.postHashtagRepository = postHashtagRepository;
+        this.feedService = feedService;
+        this.trendingService = trendingService;
+        this.etagCache = etagCache;
+        this.postCache = postCache;
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    // Called for posts scheduled or rescheduled here, so they need not wait
+    // for the next load; posts beyond the horizon are left to a later load.
+    // An entry left from an earlier publishAt fires harmlessly: the claim
+    // only takes posts that are due.
+    public void schedule(Post post) {
+        scheduled.remove(post.getId());
+        if (post.getPublishAt().isBefore(LocalDateTime.now().plus(horizon))
+                && !add(post.getId(), post.getPublishAt())) {
+            publish(List.of(post.getId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.publish.load-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void loadPending() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        LocalDateTime afterAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        Long afterId = 0L;
+        List<Long> overdue = new ArrayList<>();
+        List<PostRepository.PendingPublish> page;
+        do {
+            page = postRepository.findPendingPublish(until, afterAt, afterId, Limit.of(LOAD_PAGE_SIZE));
+            for (PostRepository.PendingPublish pending : page) {
+                if (!add(pending.getId(), pending.getPublishAt())) {
+                    overdue.add(pending.getId());
+                }
+            }
+            if (!page.isEmpty()) {
+                afterAt = page.get(page.size() - 1).getPublishAt();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        // Missed while no instance was running, or fired while not yet due.
+        publishInBatches(overdue);
+    }
+
+    @Scheduled(fixedDelayString = "${post.publish.tick-ms:1000}")
+    public void publishDue() {
+        List<Long> due = wheel.advanceTo(System.currentTimeMillis());
+        due.forEach(scheduled::remove);
+        publishInBatches(due);
+    }
+
+    // Returns false, adding nothing, when the post is already due.
+    private boolean add(Long id, LocalDateTime publishAt) {
+        if (!scheduled.add(id)) {
+            return true;
+        }
+        long deadline = publishAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.add(id, deadline)) {
+            scheduled.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private void publishInBatches(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += CLAIM_BATCH_SIZE) {
+            publish(ids.subList(from, Math.min(from + CLAIM_BATCH_SIZE, ids.size())));
+        }
+    }
+
+    private void publish(List<Long> ids) {
+        List<Long> claimed;
+        try {
+            claimed = postRepository.claimDue(ids, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        } catch (RuntimeException ex) {
+            // Still unpublished, so the next load brings them back.
+            log.warn("Publishing {} scheduled posts failed", ids.size(), ex);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        // Published now; what follows only updates this instance's caches and
+        // counters, as creating a post does.
+        for (Post post : postRepository.findAllById(claimed)) {
+            etagCache.evict(post.getId());
+            postCache.evict(post.getId());
+            trendingService.recordHashtags(new HashSet<>(postHashtagRepository.findTagsByPostId(post.getId())));
+            feedService.onPostCreated(post);
+        }
+        log.info("Published {} scheduled posts", claimed.size());
+    }
+}
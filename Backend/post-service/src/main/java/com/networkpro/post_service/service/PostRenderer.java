@@ -0,0 +1,143 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered HTML of post content. Posts are rendered when written and the
+ * HTML is stored with them, stamped with {@link MarkdownRenderer#VERSION}, so
+ * reads never render. A post stamped with an older version is re-rendered
+ * when it is read, and the new HTML is written back in batches every
+ * {@code post.render.flush-ms}.
+ *
+ * A new renderer leaves every row stale at once, and other instances keep
+ * reading stale rows until the write-backs land; an LRU of the HTML of the
+ * last {@code post.render.cache-size} re-rendered posts keeps hot posts from
+ * being rendered on every read meanwhile.
+ *
+ * Metrics: post.render.renders counts renders on read, post.render.cache-hits
+ * the renders the cache saved, post.render.writes the rows written back.
+ */
+@Component
+public class PostRenderer {
+    private static final Logger log = LoggerFactory.getLogger(PostRenderer.class);
+
+    // Skips posts edited meanwhile; they were rendered on write.
+    private static final String WRITE_HTML = "UPDATE posts SET content_html = ?, render_version = ? "
+            + "WHERE id = ? AND version = ? AND render_version <> ?";
+
+    private final int maxEntries;
+    private final LinkedHashMap<Long, Rendered> cache;
+    private final ConcurrentHashMap<Long, Rendered> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter renders;
+    private final Counter cacheHits;
+    private final Counter writes;
+
+    public PostRenderer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${post.render.cache-size:2000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Rendered> eldest) {
+                return size() > PostRenderer.this.maxEntries;
+            }
+        };
+        this.renders = meterRegistry.counter("post.render.renders");
+        this.cacheHits = meterRegistry.counter("post.render.cache-hits");
+        this.writes = meterRegistry.counter("post.render.writes");
+        Gauge.builder("post.render.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    // For a post being created or edited.
+    public void renderOnWrite(Post post) {
+        post.setContentHtml(MarkdownRenderer.render(post.getContent()));
+        post.setRenderVersion(MarkdownRenderer.VERSION);
+    }
+
+    // For a post just loaded: brings its HTML up to the current renderer.
+    public void ensureCurrent(Post post) {
+        if (post.getRenderVersion() == MarkdownRenderer.VERSION && post.getContentHtml() != null) {
+            return;
+        }
+        String html = cached(post.getId(), post.getVersion());
+        if (html != null) {
+            cacheHits.increment();
+        } else {
+            html = MarkdownRenderer.render(post.getContent());
+            renders.increment();
+            Rendered rendered = new Rendered(post.getVersion(), html);
+            synchronized (this) {
+                cache.put(post.getId(), rendered);
+            }
+            pending.put(post.getId(), rendered);
+        }
+        post.setContentHtml(html);
+        post.setRenderVersion(MarkdownRenderer.VERSION);
+    }
+
+    public void evict(Long postId) {
+        pending.remove(postId);
+        synchronized (this) {
+            cache.remove(postId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.render.flush-ms:5000}")
+    public void flush() {
+        Map<Long, Rendered> drained = new HashMap<>();
+        for (Long postId : pending.keySet()) {
+            Rendered rendered = pending.remove(postId);
+            if (rendered != null) {
+                drained.put(postId, rendered);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        drained.forEach((postId, rendered) -> batch.add(new Object[]{rendered.html(), MarkdownRenderer.VERSION,
+                postId, rendered.version(), MarkdownRenderer.VERSION}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(WRITE_HTML, batch));
+            writes.increment(batch.size());
+        } catch (RuntimeException ex) {
+            log.warn("Writing back the HTML of {} posts failed; retrying on the next flush", drained.size(), ex);
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private synchronized String cached(Long postId, Long version) {
+        Rendered rendered = cache.get(postId);
+        return rendered != null && rendered.version().equals(version) ? rendered.html() : null;
+    }
+
+    private record Rendered(Long version, String html) {
+    }
+}
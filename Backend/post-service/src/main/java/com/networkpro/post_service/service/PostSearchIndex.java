@@ -0,0 +1,112 @@
+package com.networkpro.post_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Owns the full-text search document of {@code posts}. The document is a
+ * stored generated column, so Postgres keeps it in step with every insert,
+ * update and delete; title terms are weighted above content terms.
+ *
+ * The GIN index over it is built, and periodically rebuilt on
+ * {@code post.search.reindex-cron}, with CONCURRENTLY so writes carry on
+ * meanwhile. Until the first build finishes searches still work, by scanning.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PostSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final String INDEX_NAME = "idx_posts_search_vector";
+
+    // Adding a stored generated column rewrites the table, which is only cheap
+    // while it is empty, as it is right after Hibernate creates it.
+    private static final String SEARCH_COLUMN = "ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector "
+            + "GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') "
+            + "|| setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public PostSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        jdbcTemplate.execute(SEARCH_COLUMN);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        Thread.ofVirtual().name("post-search-index").start(this::rebuild);
+    }
+
+    @Scheduled(cron = "${post.search.reindex-cron:0 30 3 * * SUN}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // CONCURRENTLY cannot run inside a transaction, and the session
+            // advisory lock has to be taken and released on the same connection.
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    if (!tryLock(statement)) {
+                        return null;
+                    }
+                    try {
+                        long started = System.nanoTime();
+                        rebuildIndex(statement);
+                        log.info("Rebuilt {} in {} ms", INDEX_NAME, (System.nanoTime() - started) / 1_000_000);
+                    } finally {
+                        statement.execute("SELECT pg_advisory_unlock(hashtext('post_search_index'))");
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Rebuilding {} failed", INDEX_NAME, ex);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // A build interrupted half way leaves an invalid index behind; it is
+    // dropped and built again rather than reindexed.
+    private void rebuildIndex(Statement statement) throws SQLException {
+        Boolean valid = null;
+        try (ResultSet rs = statement.executeQuery("SELECT i.indisvalid FROM pg_index i "
+                + "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = '" + INDEX_NAME + "' "
+                + "AND c.relnamespace = current_schema()::regnamespace")) {
+            if (rs.next()) {
+                valid = rs.getBoolean(1);
+            }
+        }
+        if (Boolean.TRUE.equals(valid)) {
+            statement.execute("REINDEX INDEX CONCURRENTLY " + INDEX_NAME);
+            return;
+        }
+        statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_NAME);
+        statement.execute("CREATE INDEX CONCURRENTLY " + INDEX_NAME + " ON posts USING GIN (search_vector)");
+    }
+
+    // Keeps several instances from rebuilding the same index at once.
+    private static boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(hashtext('post_search_index'))")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+}
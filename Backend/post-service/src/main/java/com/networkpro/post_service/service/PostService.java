@@ -1,16 +1,29 @@
 package com.networkpro.post_service.service;
 
+import com.networkpro.post_service.dto.PostBatchDTO;
 import com.networkpro.post_service.dto.PostDTO;
+import com.networkpro.post_service.dto.PostPageDTO;
 import com.networkpro.post_service.model.Post;
+
 import java.util.List;
 
 public interface PostService {
     Post createPost(PostDTO postDTO);
 
-    List<Post> getAllPosts();
+    PostPageDTO getPosts(String cursor, int size);
+
+    PostPageDTO getPostsByAuthorId(Long authorId, String cursor, int size);
+
+    PostPageDTO searchPosts(String query, String cursor, int size);
 
     Post getPostById(Long id);
 
+    // Posts in the requested order; ids with no post are listed as missing.
+    PostBatchDTO getPostsByIds(List<Long> ids);
+
+    // Current ETag of a post, without loading it when the tag is cached.
+    String getPostETag(Long id);
+
     Post updatePost(Long id, PostDTO postDTO);
 
     void deletePost(Long id);
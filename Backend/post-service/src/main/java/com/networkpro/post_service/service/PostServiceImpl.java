@@ -1,50 +1,328 @@
 package com.networkpro.post_service.service;
 
+import com.networkpro.post_service.dto.PostBatchDTO;
 import com.networkpro.post_service.dto.PostDTO;
+import com.networkpro.post_service.dto.PostPageDTO;
+import com.networkpro.post_service.dto.PostSummaryDTO;
 import com.networkpro.post_service.model.Post;
+import com.networkpro.post_service.model.PostHashtag;
+import com.networkpro.post_service.repository.PostHashtagRepository;
+import com.networkpro.post_service.repository.PostReactionRepository;
 import com.networkpro.post_service.repository.PostRepository;
 import com.networkpro.post_service.exception.PostNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 
 @Service
 public class PostServiceImpl implements PostService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private PostReactionRepository postReactionRepository;
+
+    @Autowired
+    private PostCounters postCounters;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostHashtagRepository postHashtagRepository;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ETagCache etagCache;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostViews postViews;
+
+    @Autowired
+    private PostPublisher postPublisher;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private PostRenderer postRenderer;
+
+    @Value("${post.search.half-life-days:30}")
+    private double searchHalfLifeDays;
+
     @Override
     public Post createPost(PostDTO postDTO) {
         Post post = new Post();
         post.setTitle(postDTO.getTitle());
         post.setContent(postDTO.getContent());
         post.setAuthor(postDTO.getAuthor());
-        return postRepository.save(post);
+        post.setAuthorId(postDTO.getAuthorId());
+        // Postgres keeps microseconds; truncating keeps cursors built from the
+        // returned value exact.
+        post.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        if (postDTO.getPublishAt() != null && postDTO.getPublishAt().isAfter(post.getCreatedAt())) {
+            post.setPublishAt(postDTO.getPublishAt());
+            post.setPublished(false);
+        }
+        postRenderer.renderOnWrite(post);
+        Post saved = postRepository.save(post);
+        Set<String> tags = HashtagExtractor.extract(saved.getTitle(), saved.getContent());
+        saveHashtags(saved.getId(), tags);
+        if (!saved.isPublished()) {
+            // Fanned out and counted towards trending when published.
+            postPublisher.schedule(saved);
+            return saved;
+        }
+        trendingService.recordHashtags(tags);
+        feedService.onPostCreated(saved);
+        return saved;
     }
 
     @Override
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    public PostPageDTO getPosts(String cursor, int size) {
+        return page(cursor, size, postRepository::findFirstPage, postRepository::findPageAfter);
+    }
+
+    @Override
+    public PostPageDTO getPostsByAuthorId(Long authorId, String cursor, int size) {
+        return page(cursor, size, limit -> postRepository.findFirstPageByAuthorId(authorId, limit),
+                (createdAt, id, limit) -> postRepository.findPageByAuthorIdAfter(authorId, createdAt, id, limit));
+    }
+
+    @Override
+    public PostPageDTO searchPosts(String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SearchCursor position = cursor == null || cursor.isBlank()
+                ? SearchCursor.first(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                : SearchCursor.decode(cursor);
+        List<PostRepository.SearchHit> hits = postRepository.search(query, position.asOf(), searchHalfLifeDays,
+                position.score(), position.id(), size + 1);
+        boolean hasMore = hits.size() > size;
+        if (hasMore) {
+            hits = hits.subList(0, size);
+        }
+        List<PostSummaryDTO> posts = hits.stream()
+                .map(hit -> new PostSummaryDTO(hit.getId(), hit.getTitle(), hit.getAuthor(), hit.getCreatedAt()))
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            PostRepository.SearchHit last = hits.get(hits.size() - 1);
+            nextCursor = new SearchCursor(position.asOf(), last.getScore(), last.getId()).encode();
+        }
+        return new PostPageDTO(posts, nextCursor, hasMore);
     }
 
     @Override
     public Post getPostById(Long id) {
-        return postRepository.findById(id)
+        long etagGeneration = etagCache.generation();
+        long cacheGeneration = postCache.generation();
+        // Scheduled posts are not out yet.
+        Post post = postRepository.findById(id)
+                .filter(Post::isPublished)
+                .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + id));
+        postRenderer.ensureCurrent(post);
+        etagCache.put(id, post.getVersion(), etagGeneration);
+        postCache.put(post, cacheGeneration);
+        return post;
+    }
+
+    @Override
+    public PostBatchDTO getPostsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be fetched at once");
+        }
+        long generation = postCache.generation();
+        Map<Long, Post> found = postCache.getAll(requested);
+        List<Long> misses = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            // One IN query for everything the cache did not have.
+            List<Post> loaded = postRepository.findAllById(misses);
+            loaded.forEach(postRenderer::ensureCurrent);
+            postCache.putAll(loaded, generation);
+            loaded.forEach(post -> found.put(post.getId(), post));
+        }
+        // Scheduled posts are not out yet.
+        found.values().removeIf(post -> !post.isPublished());
+        List<Post> posts = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Post post = found.get(id);
+            if (post != null) {
+                posts.add(post);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PostBatchDTO(posts, missing);
+    }
+
+    @Override
+    public String getPostETag(Long id) {
+        return etagCache.tagFor(id, () -> postRepository.findPublishedVersionById(id))
                 .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + id));
     }
 
+    // One transaction, so the caches' after-commit evictions run after the new
+    // version is visible. Loads the row directly rather than through the
+    // caching read path.
     @Override
+    @Transactional
     public Post updatePost(Long id, PostDTO postDTO) {
-        Post post = getPostById(id);
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + id));
         post.setTitle(postDTO.getTitle());
         post.setContent(postDTO.getContent());
         post.setAuthor(postDTO.getAuthor());
-        return postRepository.save(post);
+        if (postDTO.getAuthorId() != null) {
+            post.setAuthorId(postDTO.getAuthorId());
+        }
+        boolean rescheduled = !post.isPublished() && postDTO.getPublishAt() != null
+                && !postDTO.getPublishAt().equals(post.getPublishAt());
+        if (rescheduled) {
+            post.setPublishAt(postDTO.getPublishAt());
+        }
+        postRenderer.renderOnWrite(post);
+        Post saved = postRepository.save(post);
+        etagCache.evict(id);
+        postCache.evict(id);
+        postRenderer.evict(id);
+        // Only tags new to the post count towards trending.
+        Set<String> tags = HashtagExtractor.extract(saved.getTitle(), saved.getContent());
+        Set<String> previous = new HashSet<>(postHashtagRepository.findTagsByPostId(id));
+        Set<String> removed = new HashSet<>(previous);
+        removed.removeAll(tags);
+        if (!removed.isEmpty()) {
+            postHashtagRepository.deleteByPostIdAndTagIn(id, removed);
+        }
+        tags.removeAll(previous);
+        saveHashtags(id, tags);
+        if (saved.isPublished()) {
+            trendingService.recordHashtags(tags);
+        } else if (rescheduled) {
+            postPublisher.schedule(saved);
+        }
+        return saved;
     }
 
     @Override
     public void deletePost(Long id) {
         postRepository.deleteById(id);
+        etagCache.evict(id);
+        postCache.evict(id);
+        postRenderer.evict(id);
+        postReactionRepository.deleteByPostId(id);
+        commentService.deleteCommentsOfPost(id);
+        postHashtagRepository.deleteByPostId(id);
+        trendingService.forgetPost(id);
+        postCounters.forget(id);
+        postViews.forget(id);
+        mediaService.deleteMediaOfPost(id);
+    }
+
+    private PostPageDTO page(String cursor, int size, Function<Limit, List<PostSummaryDTO>> firstPage,
+            PageAfter pageAfter) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether another page exists without a count query.
+        Limit limit = Limit.of(size + 1);
+        List<PostSummaryDTO> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = firstPage.apply(limit);
+        } else {
+            PostCursor position = PostCursor.decode(cursor);
+            posts = pageAfter.find(position.createdAt(), position.id(), limit);
+        }
+        boolean hasMore = posts.size() > size;
+        if (hasMore) {
+            posts = posts.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            PostSummaryDTO last = posts.get(posts.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PostPageDTO(posts, nextCursor, hasMore);
+    }
+
+    private void saveHashtags(Long postId, Set<String> tags) {
+        postHashtagRepository.saveAll(tags.stream().map(tag -> new PostHashtag(null, postId, tag)).toList());
+    }
+
+    private interface PageAfter {
+        List<PostSummaryDTO> find(LocalDateTime createdAt, Long id, Limit limit);
+    }
+
+    // Position of the last post of a page: base64url of "<createdAt>|<id>".
+    private record PostCursor(LocalDateTime createdAt, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PostCursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new PostCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
+    }
+
+    // Search-after position: the time ages are measured from, plus the score
+    // and id of the last hit, as base64url of "<asOf>|<score>|<id>".
+    private record SearchCursor(LocalDateTime asOf, double score, long id) {
+        static SearchCursor first(LocalDateTime asOf) {
+            return new SearchCursor(asOf, Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((asOf + "|" + score + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|");
+                return new SearchCursor(LocalDateTime.parse(parts[0]), Double.parseDouble(parts[1]),
+                        Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.model.PostViewDaily;
+import com.networkpro.post_service.repository.PostViewDailyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Post views and unique viewers, gathered in memory per post and UTC day as
+ * a view count and a {@link HyperLogLog} of viewers, and merged into the
+ * {@code post_view_daily} rollups every {@code post.views.flush-ms}. A post
+ * costs a couple of KB in memory and one row per day in the database however
+ * many people view it.
+ *
+ * Sketches cannot be added up in SQL, so rows that already exist are locked,
+ * merged here and written back, all in one transaction per flush.
+ */
+@Component
+public class PostViews {
+    private static final Logger log = LoggerFactory.getLogger(PostViews.class);
+
+    // Only posts that still exist get a row; views of deleted posts are dropped.
+    private static final String INSERT_DAY = "INSERT INTO post_view_daily (post_id, day, views, unique_viewers, sketch) "
+            + "SELECT ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) "
+            + "ON CONFLICT (post_id, day) DO NOTHING";
+    // Locked in key order, so concurrent flushes from several instances
+    // cannot deadlock.
+    private static final String LOCK_DAYS = "SELECT v.post_id, v.day, v.sketch FROM post_view_daily v "
+            + "JOIN unnest(?::bigint[], ?::date[]) AS k(post_id, day) ON v.post_id = k.post_id AND v.day = k.day "
+            + "ORDER BY v.post_id, v.day FOR UPDATE OF v";
+    private static final String UPDATE_DAY = "UPDATE post_view_daily SET views = views + ?, unique_viewers = ?, "
+            + "sketch = ? WHERE post_id = ? AND day = ?";
+
+    private final ConcurrentHashMap<DayKey, Tally> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostViewDailyRepository postViewDailyRepository;
+    private final int batchSize;
+
+    public PostViews(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PostViewDailyRepository postViewDailyRepository, @Value("${post.views.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postViewDailyRepository = postViewDailyRepository;
+        this.batchSize = batchSize;
+    }
+
+    // The tally is updated inside compute, so a flush draining the same key
+    // either sees this view or leaves it for the next flush.
+    public void record(Long postId, String viewer) {
+        pending.compute(new DayKey(postId, LocalDate.now(ZoneOffset.UTC)), (key, tally) -> {
+            Tally updated = tally != null ? tally : new Tally();
+            updated.views.increment();
+            updated.viewers.add(viewer);
+            return updated;
+        });
+    }
+
+    // Flushed days of the post plus what is still pending, oldest first.
+    public List<PostViewDaily> days(Long postId) {
+        Map<LocalDate, PostViewDaily> days = new HashMap<>();
+        for (PostViewDaily day : postViewDailyRepository.findByPostId(postId)) {
+            days.put(day.getDay(), day);
+        }
+        pending.forEach((key, tally) -> {
+            if (key.postId().equals(postId)) {
+                days.merge(key.day(), tally.toRow(key), PostViews::combine);
+            }
+        });
+        List<PostViewDaily> ordered = new ArrayList<>(days.values());
+        ordered.sort(Comparator.comparing(PostViewDaily::getDay));
+        return ordered;
+    }
+
+    public void forget(Long postId) {
+        pending.keySet().removeIf(key -> key.postId().equals(postId));
+        postViewDailyRepository.deleteByPostId(postId);
+    }
+
+    @Scheduled(fixedDelayString = "${post.views.flush-ms:5000}")
+    public void flush() {
+        Map<DayKey, Tally> drained = new HashMap<>();
+        for (DayKey key : pending.keySet()) {
+            Tally tally = pending.remove(key);
+            if (tally != null) {
+                drained.put(key, tally);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<DayKey> keys = new ArrayList<>(drained.keySet());
+        keys.sort(Comparator.comparing(DayKey::postId).thenComparing(DayKey::day));
+        try {
+            // One transaction, so a failed flush leaves nothing half applied.
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < keys.size(); from += batchSize) {
+                    write(keys.subList(from, Math.min(from + batchSize, keys.size())), drained);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Merge the tallies back so the next flush retries them.
+            log.warn("Flushing views of {} post days failed; retrying on the next flush", drained.size(), ex);
+            drained.forEach((key, tally) -> pending.merge(key, tally, Tally::mergeFrom));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // New days are inserted as they are; days that already have a row are
+    // locked, merged with it and updated.
+    private void write(List<DayKey> keys, Map<DayKey, Tally> drained) {
+        List<Object[]> inserts = new ArrayList<>(keys.size());
+        for (DayKey key : keys) {
+            Tally tally = drained.get(key);
+            inserts.add(new Object[]{key.postId(), Date.valueOf(key.day()), tally.views.sum(),
+                    tally.viewers.estimate(), tally.viewers.toBytes(), key.postId()});
+        }
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_DAY, inserts);
+        List<DayKey> existing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (inserted[i] == 0) {
+                existing.add(keys.get(i));
+            }
+        }
+        if (existing.isEmpty()) {
+            return;
+        }
+        List<Object[]> updates = new ArrayList<>(existing.size());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_DAYS);
+            Array postIds = connection.createArrayOf("bigint", existing.stream().map(DayKey::postId).toArray());
+            Array days = connection.createArrayOf("date",
+                    existing.stream().map(key -> Date.valueOf(key.day())).toArray());
+            statement.setArray(1, postIds);
+            statement.setArray(2, days);
+            return statement;
+        }, rs -> {
+            DayKey key = new DayKey(rs.getLong("post_id"), rs.getDate("day").toLocalDate());
+            Tally tally = drained.get(key);
+            HyperLogLog viewers = HyperLogLog.fromBytes(rs.getBytes("sketch"));
+            viewers.merge(tally.viewers);
+            updates.add(new Object[]{tally.views.sum(), viewers.estimate(), viewers.toBytes(), key.postId(),
+                    Date.valueOf(key.day())});
+        });
+        // Days missing here belong to posts deleted meanwhile.
+        jdbcTemplate.batchUpdate(UPDATE_DAY, updates);
+    }
+
+    private static PostViewDaily combine(PostViewDaily flushed, PostViewDaily pendingDay) {
+        HyperLogLog viewers = HyperLogLog.fromBytes(flushed.getSketch());
+        viewers.merge(HyperLogLog.fromBytes(pendingDay.getSketch()));
+        return new PostViewDaily(flushed.getPostId(), flushed.getDay(), flushed.getViews() + pendingDay.getViews(),
+                viewers.estimate(), viewers.toBytes());
+    }
+
+    private record DayKey(Long postId, LocalDate day) {
+    }
+
+    private static final class Tally {
+        private final LongAdder views = new LongAdder();
+        private final HyperLogLog viewers = new HyperLogLog();
+
+        Tally mergeFrom(Tally other) {
+            views.add(other.views.sum());
+            viewers.merge(other.viewers);
+            return this;
+        }
+
+        PostViewDaily toRow(DayKey key) {
+            return new PostViewDaily(key.postId(), key.day(), views.sum(), viewers.estimate(), viewers.toBytes());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.PostCountsDTO;
+import com.networkpro.post_service.model.ReactionType;
+
+public interface ReactionService {
+    void react(Long postId, String userId, ReactionType type);
+
+    void removeReaction(Long postId, String userId);
+
+    PostCountsDTO getCounts(Long postId, String userId);
+}
@@ -0,0 +1,94 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.PostCountsDTO;
+import com.networkpro.post_service.exception.PostNotFoundException;
+import com.networkpro.post_service.model.PostCounter;
+import com.networkpro.post_service.model.PostReaction;
+import com.networkpro.post_service.model.ReactionType;
+import com.networkpro.post_service.repository.PostReactionRepository;
+import com.networkpro.post_service.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ReactionServiceImpl implements ReactionService {
+    // Trending weight of a new reaction; changing its type adds nothing.
+    private static final long REACTION_WEIGHT = 1;
+
+    @Autowired
+    private PostReactionRepository postReactionRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCounters postCounters;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    // Idempotent: reacting again with the same type changes nothing, and a
+    // different type moves the user's one reaction between counters.
+    @Override
+    public void react(Long postId, String userId, ReactionType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Reaction type is required");
+        }
+        // A concurrent removal can slip between the two statements; retry
+        // until one of them applies or the reaction is already in place.
+        while (true) {
+            if (postReactionRepository.insertIfAbsent(postId, userId, type.name()) == 1) {
+                postCounters.add(postId, type.name(), 1);
+                trendingService.recordPostEngagement(postId, REACTION_WEIGHT);
+                return;
+            }
+            List<String> replaced = postReactionRepository.replaceType(postId, userId, type.name());
+            if (!replaced.isEmpty()) {
+                postCounters.add(postId, replaced.get(0), -1);
+                postCounters.add(postId, type.name(), 1);
+                return;
+            }
+            if (postReactionRepository.existsByPostIdAndUserId(postId, userId)) {
+                return;
+            }
+            requirePost(postId);
+        }
+    }
+
+    @Override
+    public void removeReaction(Long postId, String userId) {
+        for (String removed : postReactionRepository.deleteReturningType(postId, userId)) {
+            postCounters.add(postId, removed, -1);
+        }
+    }
+
+    @Override
+    public PostCountsDTO getCounts(Long postId, String userId) {
+        requirePost(postId);
+        Map<String, Long> totals = postCounters.totals(postId);
+        Map<ReactionType, Long> reactions = new EnumMap<>(ReactionType.class);
+        long totalReactions = 0;
+        for (ReactionType type : ReactionType.values()) {
+            long count = totals.getOrDefault(type.name(), 0L);
+            if (count > 0) {
+                reactions.put(type, count);
+                totalReactions += count;
+            }
+        }
+        ReactionType userReaction = userId == null ? null : postReactionRepository
+                .findByPostIdAndUserId(postId, userId).map(PostReaction::getType).orElse(null);
+        return new PostCountsDTO(postId, reactions, totalReactions,
+                totals.getOrDefault(PostCounter.COMMENTS, 0L), userReaction);
+    }
+
+    // Scheduled posts are not out yet.
+    private void requirePost(Long postId) {
+        if (!postRepository.existsByIdAndPublishedTrue(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.networkpro.post_service.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate heavy hitters over a sliding window. The window is split into
+ * buckets, each a count-min sketch; a running sum of all buckets answers
+ * estimates, and rotating drops the oldest bucket out of it. Candidates for
+ * the top are kept in a small map bounded at twice the tracked size, and
+ * trimmed back with a heap.
+ *
+ * Recording and reading take no lock; only rotation and trimming do, and
+ * they run at most once a bucket and once per capacity of new candidates.
+ */
+final class SlidingTopK {
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int width;
+    private final int capacity;
+    private final AtomicLongArray[] buckets;
+    private final AtomicLongArray window;
+    private final ConcurrentHashMap<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile int current;
+    // Estimate a new key needs to become a candidate once the map is full.
+    private volatile long floor;
+
+    SlidingTopK(int bucketCount, int width, int capacity) {
+        this.width = width;
+        this.capacity = capacity;
+        this.buckets = new AtomicLongArray[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new AtomicLongArray(DEPTH * width);
+        }
+        this.window = new AtomicLongArray(DEPTH * width);
+    }
+
+    void record(String key, long weight) {
+        AtomicLongArray bucket = buckets[current];
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int cell = cell(hash, row);
+            bucket.addAndGet(cell, weight);
+            estimate = Math.min(estimate, window.addAndGet(cell, weight));
+        }
+        if (estimate > floor || candidates.size() < capacity || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (candidates.size() > 2 * capacity) {
+                trim();
+            }
+        }
+    }
+
+    long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, window.get(cell(hash, row)));
+        }
+        return estimate;
+    }
+
+    // Highest estimates first.
+    List<Map.Entry<String, Long>> top(int limit) {
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return top;
+    }
+
+    void remove(String key) {
+        candidates.remove(key);
+    }
+
+    // Starts a new bucket, dropping the oldest out of the window, and
+    // re-estimates the candidates against what is left.
+    synchronized void rotate() {
+        int next = (current + 1) % buckets.length;
+        AtomicLongArray expired = buckets[next];
+        for (int cell = 0; cell < expired.length(); cell++) {
+            long count = expired.getAndSet(cell, 0);
+            if (count != 0) {
+                window.addAndGet(cell, -count);
+            }
+        }
+        current = next;
+        candidates.replaceAll((key, estimate) -> estimate(key));
+        candidates.values().removeIf(estimate -> estimate <= 0);
+        floor = 0;
+        if (candidates.size() > capacity) {
+            trim();
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(buckets.length);
+        out.writeInt(width);
+        out.writeInt(current);
+        for (AtomicLongArray bucket : buckets) {
+            for (int cell = 0; cell < bucket.length(); cell++) {
+                out.writeLong(bucket.get(cell));
+            }
+        }
+        List<Map.Entry<String, Long>> top = top(capacity);
+        out.writeInt(top.size());
+        for (Map.Entry<String, Long> entry : top) {
+            out.writeUTF(entry.getKey());
+        }
+    }
+
+    // Returns false, leaving this empty, when the snapshot was taken with a
+    // different window or sketch size.
+    boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != buckets.length || in.readInt() != width) {
+            return false;
+        }
+        current = in.readInt();
+        for (AtomicLongArray bucket : buckets) {
+            for (int cell = 0; cell < bucket.length(); cell++) {
+                long count = in.readLong();
+                bucket.set(cell, count);
+                window.addAndGet(cell, count);
+            }
+        }
+        int candidateCount = in.readInt();
+        for (int i = 0; i < candidateCount; i++) {
+            String key = in.readUTF();
+            candidates.put(key, estimate(key));
+        }
+        return true;
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() <= capacity) {
+            return;
+        }
+        List<Map.Entry<String, Long>> keep = top(capacity);
+        candidates.keySet().retainAll(keep.stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+        floor = keep.stream().map(Map.Entry::getValue).min(Comparator.naturalOrder()).orElse(0L);
+    }
+
+    private int cell(long hash, int row) {
+        long mixed = (hash ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        return row * width + (int) Math.floorMod(mixed, (long) width);
+    }
+
+    // 64-bit FNV-1a, so keys that share a String.hashCode still land in
+    // different cells.
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+}
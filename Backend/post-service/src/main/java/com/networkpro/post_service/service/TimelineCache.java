@@ -0,0 +1,184 @@
+package com.networkpro.post_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user home timelines of post feed keys, newest first. Each list is capped
+ * at {@code post.feed.timeline-size}; older keys are trimmed and the list is
+ * marked truncated so reads past its end go to the database. Timelines exist
+ * only for users who have read their feed recently, and are dropped after
+ * {@code post.feed.idle-minutes} without a read.
+ *
+ * <p>A timeline is built from a database read, and posts committed while
+ * that read runs may be missing from it. Pushes that arrive between
+ * {@link #beginBuild} and {@link #build} are therefore held by the build and
+ * merged in before the timeline is published. Callers push only after the
+ * post has committed, so any post the read missed is held this way.
+ */
+@Component
+public class TimelineCache {
+    private final ConcurrentHashMap<String, Timeline> timelines = new ConcurrentHashMap<>();
+    // Builds in flight; a newer build for the same user replaces an older one.
+    private final ConcurrentHashMap<String, Build> builds = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final long idleNanos;
+
+    public TimelineCache(@Value("${post.feed.timeline-size:800}") int capacity,
+            @Value("${post.feed.idle-minutes:30}") long idleMinutes) {
+        this.capacity = capacity;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Null when the user has no timeline in memory.
+    public Timeline get(String user) {
+        Timeline timeline = timelines.get(user);
+        if (timeline != null) {
+            timeline.lastReadNanos = System.nanoTime();
+        }
+        return timeline;
+    }
+
+    // Must be called before the database read the timeline is built from.
+    public Build beginBuild(String user) {
+        Build pending = new Build();
+        builds.put(user, pending);
+        return pending;
+    }
+
+    // The timeline is cached only if the build was neither invalidated nor
+    // replaced by a newer one; it is returned either way.
+    public Timeline build(String user, Build pending, List<Long> newestFirst, boolean truncated) {
+        Timeline timeline = new Timeline(capacity);
+        int count = Math.min(newestFirst.size(), capacity);
+        for (int i = 0; i < count; i++) {
+            timeline.ids[i] = newestFirst.get(i);
+        }
+        timeline.size = count;
+        timeline.truncated = truncated || newestFirst.size() > capacity;
+        // Under the build's lock, so a push either lands in `held` or finds
+        // the published timeline.
+        synchronized (pending) {
+            for (long feedKey : pending.held) {
+                timeline.add(feedKey);
+            }
+            pending.done = true;
+            if (builds.remove(user, pending)) {
+                timelines.put(user, timeline);
+            }
+        }
+        return timeline;
+    }
+
+    // Returns whether the user had a timeline or a build to add to.
+    public boolean push(String user, long feedKey) {
+        Build pending = builds.get(user);
+        boolean held = pending != null && pending.hold(feedKey);
+        Timeline timeline = timelines.get(user);
+        if (timeline != null) {
+            timeline.add(feedKey);
+        }
+        return held || timeline != null;
+    }
+
+    public void invalidate(String user) {
+        builds.remove(user);
+        timelines.remove(user);
+    }
+
+    public int size() {
+        return timelines.size();
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        timelines.values().removeIf(timeline -> now - timeline.lastReadNanos > idleNanos);
+    }
+
+    public static final class Build {
+        private final List<Long> held = new ArrayList<>();
+        private boolean done;
+
+        private Build() {
+        }
+
+        private synchronized boolean hold(long feedKey) {
+            if (done) {
+                return false;
+            }
+            held.add(feedKey);
+            return true;
+        }
+    }
+
+    public static final class Timeline {
+        // Feed keys, sorted descending; ids[0] is the newest post.
+        private final long[] ids;
+        private int size;
+        private boolean truncated;
+        private volatile long lastReadNanos = System.nanoTime();
+
+        private Timeline(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        // Posts usually arrive newest first, so this is almost always an
+        // insert at the front.
+        synchronized void add(long feedKey) {
+            int position = indexBefore(feedKey + 1);
+            if (position < size && ids[position] == feedKey) {
+                return;
+            }
+            if (position == ids.length) {
+                truncated = true;
+                return;
+            }
+            int moved = Math.min(size, ids.length - 1) - position;
+            System.arraycopy(ids, position, ids, position + 1, moved);
+            ids[position] = feedKey;
+            if (size == ids.length) {
+                truncated = true;
+            } else {
+                size++;
+            }
+        }
+
+        // Up to `limit` keys older than `before`, newest first.
+        public synchronized long[] idsBefore(long before, int limit) {
+            int from = indexBefore(before);
+            return Arrays.copyOfRange(ids, from, Math.min(size, from + limit));
+        }
+
+        // Whether keys older than the oldest one held may exist.
+        public synchronized boolean isTruncated() {
+            return truncated;
+        }
+
+        // First position holding a key below `before`.
+        private int indexBefore(long before) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] >= before) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.networkpro.post_service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of ids with deadlines. Level 0 has one slot per
+ * tick; each level above has slots 64 times as wide, so four levels cover
+ * 64^4 ticks. Adding is O(1) and an id moves down at most once per level as
+ * its deadline nears, so the cost does not grow with the number of pending
+ * ids.
+ *
+ * Ticks are counted from the epoch and deadlines are rounded up to a tick,
+ * so an id never falls due early and at most one tick late.
+ * Deadlines beyond the top level are kept in its furthest slot and placed
+ * again when that slot comes round.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+    // Last tick whose slot has been expired.
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (Slot[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot();
+            }
+        }
+    }
+
+    // Returns false, adding nothing, when the deadline is already due.
+    synchronized boolean add(long id, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (tick <= currentTick) {
+            return false;
+        }
+        place(id, tick);
+        size++;
+        return true;
+    }
+
+    // Moves the wheel to `nowMillis` and returns the ids that fell due,
+    // earliest first.
+    synchronized List<Long> advanceTo(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            // Higher levels first, so their ids can land in the level 0 slot
+            // that is about to be expired.
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            Slot slot = levels[0][(int) (currentTick & (SLOTS - 1))];
+            for (int i = 0; i < slot.size; i++) {
+                due.add(slot.ids[i]);
+            }
+            size -= slot.size;
+            slot.clear();
+        }
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        Slot slot = levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1))];
+        long[] ids = Arrays.copyOf(slot.ids, slot.size);
+        long[] ticks = Arrays.copyOf(slot.ticks, slot.size);
+        slot.clear();
+        for (int i = 0; i < ids.length; i++) {
+            if (ticks[i] <= currentTick) {
+                // Due this very tick; level 0 expires it next.
+                levels[0][(int) (currentTick & (SLOTS - 1))].add(ids[i], ticks[i]);
+            } else {
+                place(ids[i], ticks[i]);
+            }
+        }
+    }
+
+    // The lowest level whose slots, counted from the current one, reach the
+    // tick. Comparing slot numbers rather than tick distances keeps an id out
+    // of the slot of its level that is currently being passed.
+    private void place(long id, long tick) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((tick >>> shift) - (currentTick >>> shift) < SLOTS) {
+                levels[level][(int) ((tick >>> shift) & (SLOTS - 1))].add(id, tick);
+                return;
+            }
+        }
+        int top = SLOT_BITS * (LEVELS - 1);
+        long furthest = (currentTick >>> top) + SLOTS - 1;
+        levels[LEVELS - 1][(int) (furthest & (SLOTS - 1))].add(id, tick);
+    }
+
+    // Parallel arrays rather than objects per entry: 16 bytes an id.
+    private static final class Slot {
+        private long[] ids = new long[0];
+        private long[] ticks = new long[0];
+        private int size;
+
+        void add(long id, long tick) {
+            if (size == ids.length) {
+                int capacity = Math.max(4, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                ticks = Arrays.copyOf(ticks, capacity);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+
+        void clear() {
+            ids = new long[0];
+            ticks = new long[0];
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.TrendingItemDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TrendingService {
+    void recordPostEngagement(Long postId, long weight);
+
+    void recordHashtags(Collection<String> tags);
+
+    void forgetPost(Long postId);
+
+    List<TrendingItemDTO> trendingPosts(int limit);
+
+    List<TrendingItemDTO> trendingHashtags(int limit);
+}
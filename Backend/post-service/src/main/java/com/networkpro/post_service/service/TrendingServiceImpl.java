@@ -0,0 +1,153 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.TrendingItemDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trending posts (by reactions and comments) and hashtags (by use in new
+ * posts) over the last {@code post.trending.window-minutes}, held in memory
+ * by two {@link SlidingTopK}s. Reads never touch the database.
+ *
+ * Both are written to {@code post.trending.snapshot-path} every
+ * {@code post.trending.snapshot-seconds} and on shutdown, and read back on
+ * startup with the buckets that expired meanwhile dropped.
+ */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingServiceImpl.class);
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int MAX_LIMIT = 100;
+
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final Path snapshotPath;
+    private final SlidingTopK posts;
+    private final SlidingTopK hashtags;
+    private long bucketStartMillis = System.currentTimeMillis();
+
+    public TrendingServiceImpl(@Value("${post.trending.window-minutes:60}") long windowMinutes,
+            @Value("${post.trending.buckets:12}") int bucketCount,
+            @Value("${post.trending.sketch-width:4096}") int sketchWidth,
+            @Value("${post.trending.top-size:100}") int topSize,
+            @Value("${post.trending.snapshot-path:data/trending.snapshot}") String snapshotPath) {
+        this.bucketCount = bucketCount;
+        this.bucketMillis = TimeUnit.MINUTES.toMillis(windowMinutes) / bucketCount;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.posts = new SlidingTopK(bucketCount, sketchWidth, topSize);
+        this.hashtags = new SlidingTopK(bucketCount, sketchWidth, topSize);
+    }
+
+    @Override
+    public void recordPostEngagement(Long postId, long weight) {
+        posts.record(postId.toString(), weight);
+    }
+
+    @Override
+    public void recordHashtags(Collection<String> tags) {
+        tags.forEach(tag -> hashtags.record(tag, 1));
+    }
+
+    @Override
+    public void forgetPost(Long postId) {
+        posts.remove(postId.toString());
+    }
+
+    @Override
+    public List<TrendingItemDTO> trendingPosts(int limit) {
+        return top(posts, limit);
+    }
+
+    @Override
+    public List<TrendingItemDTO> trendingHashtags(int limit) {
+        return top(hashtags, limit);
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public synchronized void rotateExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        int rotations = 0;
+        while (now - bucketStartMillis >= bucketMillis && rotations < bucketCount) {
+            posts.rotate();
+            hashtags.rotate();
+            bucketStartMillis += bucketMillis;
+            rotations++;
+        }
+        // Down longer than the whole window: everything has expired.
+        if (now - bucketStartMillis >= bucketMillis) {
+            bucketStartMillis = now;
+        }
+    }
+
+    @PostConstruct
+    public void restoreSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_VERSION || in.readLong() != bucketMillis) {
+                log.info("Ignoring trending snapshot taken with other settings");
+                return;
+            }
+            long savedBucketStart = in.readLong();
+            if (posts.readFrom(in) && hashtags.readFrom(in)) {
+                bucketStartMillis = savedBucketStart;
+                rotateExpiredBuckets();
+                log.info("Restored trending snapshot from {}", snapshotPath);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not read trending snapshot {}; starting empty", snapshotPath, ex);
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash mid-write
+    // leaves the previous snapshot intact.
+    @Scheduled(fixedDelayString = "${post.trending.snapshot-seconds:60}", timeUnit = TimeUnit.SECONDS,
+            initialDelayString = "${post.trending.snapshot-seconds:60}")
+    @PreDestroy
+    public synchronized void writeSnapshot() {
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "trending", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(SNAPSHOT_VERSION);
+                    out.writeLong(bucketMillis);
+                    out.writeLong(bucketStartMillis);
+                    posts.writeTo(out);
+                    hashtags.writeTo(out);
+                }
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not write trending snapshot {}", snapshotPath, ex);
+        }
+    }
+
+    private static List<TrendingItemDTO> top(SlidingTopK tracker, int limit) {
+        return tracker.top(Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(entry -> new TrendingItemDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
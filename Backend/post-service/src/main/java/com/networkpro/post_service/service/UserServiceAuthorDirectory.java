@@ -0,0 +1,34 @@
+package com.networkpro.post_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Resolves names through user-service's POST /api/v1/users/resolve, which
+// matches emails, and full names held by a single user.
+@Component
+public class UserServiceAuthorDirectory implements AuthorDirectory {
+    private final RestClient restClient;
+
+    public UserServiceAuthorDirectory(RestClient.Builder builder,
+            @Value("${post.authors.user-service-url:http://localhost:8092}") String userServiceUrl) {
+        this.restClient = builder.baseUrl(userServiceUrl).build();
+    }
+
+    @Override
+    public Map<String, Long> resolve(Collection<String> names) {
+        Map<String, Long> resolved = restClient.post()
+                .uri("/api/v1/users/resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(names)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Long>>() {
+                });
+        return resolved != null ? resolved : Map.of();
+    }
+}
@@ -0,0 +1,17 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.DailyViewsDTO;
+import com.networkpro.post_service.dto.PostViewsDTO;
+import com.networkpro.post_service.dto.ViewEventDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ViewService {
+    void recordViews(List<ViewEventDTO> events);
+
+    PostViewsDTO getPostViews(Long postId);
+
+    // Views of all the author's posts per UTC day, as of the last flush.
+    List<DailyViewsDTO> getAuthorDailyViews(String author, LocalDate from, LocalDate to);
+}
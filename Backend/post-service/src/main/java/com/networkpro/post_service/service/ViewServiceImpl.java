@@ -0,0 +1,80 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.dto.DailyViewsDTO;
+import com.networkpro.post_service.dto.PostViewsDTO;
+import com.networkpro.post_service.dto.ViewEventDTO;
+import com.networkpro.post_service.exception.PostNotFoundException;
+import com.networkpro.post_service.model.PostViewDaily;
+import com.networkpro.post_service.repository.PostRepository;
+import com.networkpro.post_service.repository.PostViewDailyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class ViewServiceImpl implements ViewService {
+    private static final int MAX_EVENTS = 1000;
+    private static final long MAX_DAYS = 366;
+
+    @Autowired
+    private PostViews postViews;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostViewDailyRepository postViewDailyRepository;
+
+    // Events are not checked against existing posts here; views of unknown
+    // posts are dropped when they are flushed.
+    @Override
+    public void recordViews(List<ViewEventDTO> events) {
+        if (events.size() > MAX_EVENTS) {
+            throw new IllegalArgumentException("At most " + MAX_EVENTS + " view events can be sent at once");
+        }
+        for (ViewEventDTO event : events) {
+            if (event.getPostId() == null || event.getViewer() == null || event.getViewer().isBlank()) {
+                throw new IllegalArgumentException("Every view event needs a postId and a viewer");
+            }
+        }
+        events.forEach(event -> postViews.record(event.getPostId(), event.getViewer()));
+    }
+
+    // Unique viewers over the post's lifetime are the union of its daily
+    // sketches.
+    @Override
+    public PostViewsDTO getPostViews(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+        long views = 0;
+        HyperLogLog viewers = new HyperLogLog();
+        for (PostViewDaily day : postViews.days(postId)) {
+            views += day.getViews();
+            viewers.merge(HyperLogLog.fromBytes(day.getSketch()));
+        }
+        return new PostViewsDTO(postId, views, viewers.estimate());
+    }
+
+    @Override
+    public List<DailyViewsDTO> getAuthorDailyViews(String author, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("The range must run forwards and span at most " + MAX_DAYS + " days");
+        }
+        Map<LocalDate, Long> views = new TreeMap<>();
+        Map<LocalDate, HyperLogLog> viewers = new TreeMap<>();
+        for (PostViewDaily day : postViewDailyRepository.findByAuthorBetween(author, from, to)) {
+            views.merge(day.getDay(), day.getViews(), Long::sum);
+            viewers.computeIfAbsent(day.getDay(), d -> new HyperLogLog()).merge(HyperLogLog.fromBytes(day.getSketch()));
+        }
+        return views.entrySet().stream()
+                .map(entry -> new DailyViewsDTO(entry.getKey(), entry.getValue(),
+                        viewers.get(entry.getKey()).estimate()))
+                .toList();
+    }
+}
@@ -0,0 +1,197 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.BenchmarkPostgres;
+import com.networkpro.post_service.dto.PostDTO;
+import com.networkpro.post_service.dto.PostPageDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Home feed reads and fan-out writes at a realistic shape: 2000 readers each
+ * following 50 of 1000 regular authors and both of two celebrities, whose
+ * 2000 followers are over the fan-out threshold so their posts are merged on
+ * read. After 5000 seed posts and a first read that builds every timeline,
+ * 5000 more posts are written and then feeds are read again, one at a time
+ * and from 16 threads. Prints latency for timeline builds, post writes,
+ * first pages and second pages, and the write amplification as timeline
+ * pushes per post. Checks that the pushes match the followers of the
+ * fanned-out authors, that celebrity posts cost none and still reach the
+ * feeds, and that every first page is full.
+ *
+ * Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark -Dtest=FeedTimelineLoadTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "post.feed.fanout-threshold=" + FeedTimelineLoadTest.FANOUT_THRESHOLD
+})
+class FeedTimelineLoadTest {
+    static final int FANOUT_THRESHOLD = 500;
+    private static final int AUTHORS = 1000;
+    private static final int READERS = 2000;
+    private static final int FOLLOWS = 50;
+    private static final int POSTS = 5000;
+    private static final int READS = 10_000;
+    private static final int CONCURRENCY = 16;
+    private static final int PAGE = 20;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        BenchmarkPostgres.register(registry);
+    }
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private CountingTimelineCache timelineCache;
+
+    @Test
+    void feedReadsStayFastWhileFanOutSkipsCelebrities() throws Exception {
+        Random random = new Random(1);
+        for (int reader = 0; reader < READERS; reader++) {
+            Set<Integer> following = new HashSet<>();
+            while (following.size() < FOLLOWS) {
+                following.add(random.nextInt(AUTHORS));
+            }
+            for (int author : following) {
+                feedService.follow("u" + reader, "a" + author);
+            }
+            feedService.follow("u" + reader, "c0");
+            feedService.follow("u" + reader, "c1");
+        }
+
+        run("seed post write", CONCURRENCY, POSTS, i -> postService.createPost(post(i)));
+        run("cold read (timeline build)", CONCURRENCY, READERS, i -> feedService.getFeed("u" + i, null, PAGE));
+
+        long expectedPushes = 0;
+        for (int i = POSTS; i < 2 * POSTS; i++) {
+            int followers = followGraph.followerCount(author(i));
+            expectedPushes += followers <= FANOUT_THRESHOLD ? followers : 0;
+        }
+        long pushesBefore = timelineCache.pushes.sum();
+        run("post write", CONCURRENCY, POSTS, i -> postService.createPost(post(POSTS + i)));
+        long pushes = timelineCache.pushes.sum() - pushesBefore;
+        System.out.printf("write amplification: %.1f timeline pushes per post (%d pushes for %d posts; "
+                + "celebrity followers=%d)%n", (double) pushes / POSTS, pushes, POSTS, followGraph.followerCount("c0"));
+        assertThat(pushes).isEqualTo(expectedPushes);
+
+        AtomicInteger shortPages = new AtomicInteger();
+        AtomicInteger withCelebrity = new AtomicInteger();
+        run("warm first-page read, one at a time", 1, READERS, i -> feedService.getFeed("u" + i, null, PAGE));
+        run("warm first-page read", CONCURRENCY, READS, i -> {
+            PostPageDTO page = feedService.getFeed("u" + i % READERS, null, PAGE);
+            if (page.getPosts().size() < PAGE) {
+                shortPages.incrementAndGet();
+            }
+            if (page.getPosts().stream().anyMatch(post -> post.getAuthor().startsWith("c"))) {
+                withCelebrity.incrementAndGet();
+            }
+        });
+        String cursor = feedService.getFeed("u1", null, PAGE).getNextCursor();
+        run("second-page read", CONCURRENCY, READS / 5, i -> feedService.getFeed("u" + i % READERS, cursor, PAGE));
+        assertThat(shortPages.get()).isZero();
+        assertThat(withCelebrity.get()).isEqualTo(READS);
+    }
+
+    // Runs `count` tasks over `threads` threads and prints their latency.
+    // Platform threads, like the request threads that call the service; JDBC
+    // calls pin virtual threads to their carrier.
+    private void run(String label, int threads, int count, IntConsumer task) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long[] latencies = new long[count];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        long begin = System.nanoTime();
+                        task.accept(i);
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                } catch (Exception ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d in %.1f s (%.0f/s), p50=%.2f ms, p99=%.2f ms%n", label, count, seconds,
+                count / seconds, latencies[count / 2] / 1e6, latencies[count * 99 / 100] / 1e6);
+        assertThat(failure.get()).isNull();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        @Primary
+        CountingTimelineCache countingTimelineCache(@Value("${post.feed.timeline-size:800}") int capacity,
+                @Value("${post.feed.idle-minutes:30}") long idleMinutes) {
+            return new CountingTimelineCache(capacity, idleMinutes);
+        }
+    }
+
+    static class CountingTimelineCache extends TimelineCache {
+        final LongAdder pushes = new LongAdder();
+
+        CountingTimelineCache(int capacity, long idleMinutes) {
+            super(capacity, idleMinutes);
+        }
+
+        @Override
+        public boolean push(String user, long feedKey) {
+            pushes.increment();
+            return super.push(user, feedKey);
+        }
+    }
+
+    // One post in 25 is by a celebrity.
+    private static String author(int i) {
+        return i % 25 == 0 ? "c" + (i / 25) % 2 : "a" + (i * 7919) % AUTHORS;
+    }
+
+    private static PostDTO post(int i) {
+        PostDTO post = new PostDTO();
+        post.setTitle("post " + i);
+        post.setContent("Shipped **v" + i + "** today #release");
+        post.setAuthor(author(i));
+        return post;
+    }
+}
@@ -0,0 +1,155 @@
+package com.networkpro.post_service.service;
+
+import com.networkpro.post_service.BenchmarkPostgres;
+import com.networkpro.post_service.model.ReactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 10k users reacting to one post at the same time, over HTTP. Each reacts
+ * twice; a third switch type the second time and a tenth then remove their
+ * reaction. Requests share at most 2000 connections, as they would behind a
+ * proxy; client and server sockets of 10k direct connections would not fit
+ * one process's file limit. Checks that no request fails and that after a
+ * flush every counter matches the rows in post_reaction, and prints
+ * throughput, latency and how many post_counter row writes the run cost.
+ *
+ * Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark -Dtest=ReactionLoadTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.hibernate.ddl-auto=create"
+})
+class ReactionLoadTest {
+    private static final int USERS = 10_000;
+    private static final int CONNECTIONS = 2000;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        BenchmarkPostgres.register(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCounters postCounters;
+
+    @Test
+    void tenThousandUsersReactToOnePost() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String created = client.send(HttpRequest.newBuilder(uri("/api/posts"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"viral\",\"content\":\"x\",\"author\":\"a1\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString()).body();
+        long postId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        long counterWritesBefore = counterWrites();
+
+        ReactionType[] types = ReactionType.values();
+        CountDownLatch start = new CountDownLatch(1);
+        Semaphore connections = new Semaphore(CONNECTIONS);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[USERS * 2];
+        List<Thread> users = new ArrayList<>(USERS);
+        for (int user = 0; user < USERS; user++) {
+            int k = user;
+            URI reaction = uri("/api/posts/" + postId + "/reactions/u" + k);
+            users.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 2; round++) {
+                        ReactionType type = types[(k + (round == 1 && k % 3 == 0 ? 1 : 0)) % types.length];
+                        long begin = System.nanoTime();
+                        int status = send(client, connections, HttpRequest.newBuilder(reaction)
+                                .header("Content-Type", "application/json")
+                                .PUT(HttpRequest.BodyPublishers.ofString("{\"type\":\"" + type + "\"}"))
+                                .build());
+                        latencies[k * 2 + round] = System.nanoTime() - begin;
+                        if (status != 204) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    if (k % 10 == 0 && send(client, connections,
+                            HttpRequest.newBuilder(reaction).DELETE().build()) != 204) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception ex) {
+                    errors.incrementAndGet();
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread user : users) {
+            user.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        postCounters.flush();
+
+        Arrays.sort(latencies);
+        System.out.printf("%d reactions from %d concurrent users in %.1f s (%.0f/s), errors=%d, p50=%.0f ms, "
+                + "p99=%.0f ms, post_counter row writes=%d%n", latencies.length, USERS, seconds,
+                latencies.length / seconds, errors.get(), latencies[latencies.length / 2] / 1e6,
+                latencies[latencies.length * 99 / 100] / 1e6, counterWrites() - counterWritesBefore);
+        assertThat(errors.get()).isZero();
+        Map<String, Long> rows = jdbcTemplate.queryForList(
+                "SELECT type, count(*) AS n FROM post_reaction WHERE post_id = ? GROUP BY type", postId).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("type"), row -> (Long) row.get("n")));
+        Map<String, Long> counters = jdbcTemplate.queryForList(
+                "SELECT name, value FROM post_counter WHERE post_id = ? AND value <> 0", postId).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("name"), row -> (Long) row.get("value")));
+        assertThat(counters).isEqualTo(rows);
+        assertThat(rows.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(USERS - USERS / 10);
+    }
+
+    // Latency includes the wait for a free connection.
+    private static int send(HttpClient client, Semaphore connections, HttpRequest request) throws Exception {
+        connections.acquire();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } finally {
+            connections.release();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Inserts plus updates of post_counter rows so far. Backends report them
+    // to the statistics collector at most once a second.
+    private long counterWrites() throws InterruptedException {
+        Thread.sleep(2000);
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(n_tup_ins + n_tup_upd), 0) FROM pg_stat_user_tables "
+                + "WHERE relname = 'post_counter'", Long.class);
+    }
+}
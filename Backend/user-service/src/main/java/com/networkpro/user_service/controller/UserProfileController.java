@@ -3,12 +3,14 @@ package com.networkpro.user_service.controller;
 import com.networkpro.user_service.dto.user.UserProfileDto;
 import com.networkpro.user_service.dto.user.UserProfileUpdateDto;
 import com.networkpro.user_service.dto.privacy.PrivacySettingsDto;
+import com.networkpro.user_service.service.ETagCache;
 import com.networkpro.user_service.service.user.UserProfileService;
 import com.networkpro.user_service.mapper.UserProfileMapper;
 import com.networkpro.user_service.model.UserProfile;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +27,8 @@ import java.util.HashMap;
 @CrossOrigin(origins = "*")
 public class UserProfileController {
 
+    private static final int MAX_RESOLVE_NAMES = 500;
+
     private final UserProfileService userProfileService;
     private final UserProfileMapper mapper;
 
@@ -35,11 +39,22 @@ public class UserProfileController {
         return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(created));
     }
 
+    // Answers 304 when If-None-Match holds the current ETag
     @GetMapping("/{userId}")
-    public ResponseEntity<UserProfileDto> getUserProfile(@PathVariable Long userId) {
+    public ResponseEntity<UserProfileDto> getUserProfile(@PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = userProfileService.getUserProfileETag(userId);
+            if (etag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ETagCache.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         Optional<UserProfile> profile = userProfileService.getUserProfileById(userId);
         return profile.map(mapper::toDto)
-                .map(ResponseEntity::ok)
+                .map(dto -> ResponseEntity.ok().eTag(ETagCache.tag(dto.getVersion())).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -57,6 +72,15 @@ public class UserProfileController {
         return ResponseEntity.ok(mapper.toDto(profile));
     }
 
+    // POST /api/v1/users/resolve - maps emails or unique full names to user ids
+    @PostMapping("/resolve")
+    public ResponseEntity<Map<String, Long>> resolveUserIds(@RequestBody List<String> names) {
+        if (names.size() > MAX_RESOLVE_NAMES) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userProfileService.resolveUserIds(names));
+    }
+
     @GetMapping("/{userId}/public")
     public ResponseEntity<UserProfileDto> getPublicUserProfile(@PathVariable Long userId) {
         Optional<UserProfile> profile = userProfileService.getUserProfileById(userId);
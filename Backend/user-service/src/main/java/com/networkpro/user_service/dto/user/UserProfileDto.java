@@ -50,4 +50,5 @@ public class UserProfileDto {
     private boolean isProfileComplete;
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
+    private Long version;
 }
\ No newline at end of file
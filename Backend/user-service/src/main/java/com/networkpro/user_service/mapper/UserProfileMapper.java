@@ -45,6 +45,7 @@ public class UserProfileMapper {
                                 .isProfileComplete(userProfile.getProfileCompletionPercentage() >= 100)
                                 .createdAt(userProfile.getProfileCreatedAt())
                                 .updatedAt(userProfile.getProfileUpdatedAt())
+                                .version(userProfile.getVersion())
                                 .build();
         }
 
@@ -34,6 +34,9 @@ public class UserProfile {
     private int profileCompletionPercentage;
     private LocalDateTime profileCreatedAt;
     private LocalDateTime profileUpdatedAt;
+    // Bumped on every update, skills included; the profile's ETag.
+    @Version
+    private Long version;
 
     // Contact information
     private String phoneNumber;
@@ -6,15 +6,32 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
 
+        @Query("SELECT u.version FROM UserProfile u WHERE u.id = :id")
+        Optional<Long> findVersionById(@Param("id") Long id);
+
         // Find user profile by email
         Optional<UserProfile> findByEmail(String email);
 
+        // Ids of the users whose email or full name is one of the given names
+        @Query("SELECT u.id AS id, u.email AS email, u.fullName AS fullName FROM UserProfile u "
+                        + "WHERE u.email IN :names OR u.fullName IN :names")
+        List<UserRef> findRefsByEmailOrFullNameIn(@Param("names") Collection<String> names);
+
+        interface UserRef {
+                Long getId();
+
+                String getEmail();
+
+                String getFullName();
+        }
+
         // Check if user profile exists by email
         boolean existsByEmail(String email);
 
@@ -3,6 +3,7 @@ package com.networkpro.user_service.service.user;
 import com.networkpro.user_service.model.UserProfile;
 import com.networkpro.user_service.repository.UserProfileRepository;
 import com.networkpro.user_service.dto.privacy.PrivacySettingsDto;
+import com.networkpro.user_service.service.ETagCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ import java.util.*;
 public class UserProfileService {
 
     private final UserProfileRepository userProfileRepository;
+    private final ETagCache etagCache;
     private static final String UPLOAD_DIR = "uploads/profile-pictures/";
     private static final String BANNER_UPLOAD_DIR = "uploads/banner-images/";
 
@@ -34,7 +36,15 @@ public class UserProfileService {
     // Get user profile by ID
     public Optional<UserProfile> getUserProfileById(Long id) {
         log.info("Fetching user profile with ID: {}", id);
-        return userProfileRepository.findById(id);
+        long generation = etagCache.generation();
+        Optional<UserProfile> profile = userProfileRepository.findById(id);
+        profile.ifPresent(p -> etagCache.put(id, p.getVersion(), generation));
+        return profile;
+    }
+
+    // Current ETag of a profile, without loading it when the tag is cached
+    public Optional<String> getUserProfileETag(Long id) {
+        return etagCache.tagFor(id, () -> userProfileRepository.findVersionById(id));
     }
 
     // Get user profile by email
@@ -43,6 +53,33 @@ public class UserProfileService {
         return userProfileRepository.findByEmail(email);
     }
 
+    // Maps names used elsewhere to refer to users (emails or full names) to
+    // user ids. An email always resolves; a full name only when exactly one
+    // user has it. Names that do not resolve are left out.
+    @Transactional(readOnly = true)
+    public Map<String, Long> resolveUserIds(Collection<String> names) {
+        Map<String, Long> byEmail = new HashMap<>();
+        Map<String, Set<Long>> byFullName = new HashMap<>();
+        for (UserProfileRepository.UserRef ref : userProfileRepository.findRefsByEmailOrFullNameIn(names)) {
+            if (ref.getEmail() != null) {
+                byEmail.put(ref.getEmail(), ref.getId());
+            }
+            if (ref.getFullName() != null) {
+                byFullName.computeIfAbsent(ref.getFullName(), n -> new HashSet<>()).add(ref.getId());
+            }
+        }
+        Map<String, Long> resolved = new HashMap<>();
+        for (String name : names) {
+            Set<Long> ids = byFullName.getOrDefault(name, Set.of());
+            if (byEmail.containsKey(name)) {
+                resolved.put(name, byEmail.get(name));
+            } else if (ids.size() == 1) {
+                resolved.put(name, ids.iterator().next());
+            }
+        }
+        return resolved;
+    }
+
     // Check if user profile exists by email
     public boolean existsByEmail(String email) {
         log.info("Checking if user profile exists for email: {}", email);
@@ -102,6 +139,7 @@ public class UserProfileService {
             if (updatedProfile.getSkills() != null)
                 profile.setSkills(updatedProfile.getSkills());
 
+            etagCache.evict(userId);
             return userProfileRepository.save(profile);
         }
         throw new RuntimeException("User profile not found with ID: " + userId);
@@ -111,6 +149,7 @@ public class UserProfileService {
     public void deleteUserProfile(Long userId) {
         log.info("Deleting user profile with ID: {}", userId);
         userProfileRepository.deleteById(userId);
+        etagCache.evict(userId);
     }
 
     // Get all user profiles
@@ -180,6 +219,7 @@ public class UserProfileService {
             String imageUrl = "/profile-pictures/" + userId + "/" + filename;
             profile.setProfilePictureUrl(imageUrl);
             userProfileRepository.save(profile);
+            etagCache.evict(userId);
             log.info("Profile picture uploaded successfully: {}", imageUrl);
             return imageUrl;
         } else {
@@ -209,6 +249,7 @@ public class UserProfileService {
                 // Clear URL from database
                 profile.setProfilePictureUrl(null);
                 userProfileRepository.save(profile);
+                etagCache.evict(userId);
                 log.info("Profile picture deleted successfully");
             }
         } else {
@@ -234,6 +275,7 @@ public class UserProfileService {
             String imageUrl = "/banner-images/" + userId + "/" + filename;
             profile.setHeaderImage(imageUrl);
             userProfileRepository.save(profile);
+            etagCache.evict(userId);
             log.info("Banner image uploaded successfully: {}", imageUrl);
             return imageUrl;
         } else {
@@ -263,6 +305,7 @@ public class UserProfileService {
                 // Clear URL from database
                 profile.setHeaderImage(null);
                 userProfileRepository.save(profile);
+                etagCache.evict(userId);
                 log.info("Banner image deleted successfully");
             }
         } else {
@@ -286,6 +329,7 @@ public class UserProfileService {
             profile.setSkillsPublic(privacySettingsDto.isShowCertifications());
 
             log.info("Privacy settings updated successfully for user: {}", userId);
+            etagCache.evict(userId);
             return userProfileRepository.save(profile);
         } else {
             throw new RuntimeException("User profile not found with ID: " + userId);